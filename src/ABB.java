@@ -1,5 +1,10 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Function;
 
 public class ABB<K, V> implements IMapeamento<K, V>{
@@ -10,6 +15,9 @@ public class ABB<K, V> implements IMapeamento<K, V>{
 	private long comparacoes;
 	private long inicio;
 	private long termino;
+	private No<K, V>[] lote; // nós acumulados durante a carga em lote, ou null fora dela.
+	private int tamanhoLote;
+	private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("ABB") : null; // métricas cumulativas das operações.
 	
 	/**
 	 * Método auxiliar para inicialização da árvore binária de busca.
@@ -46,34 +54,46 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     /**
      * Construtor da classe.
      * Esse construtor cria uma nova árvore binária a partir de uma outra árvore binária de busca,
-     * com os mesmos itens, mas usando uma nova chave.
+     * com os mesmos itens, mas usando uma nova chave. O comparador padrão de ordem natural será utilizado.
+     * A nova árvore é montada por carga em lote: os itens são ordenados uma única vez pela nova chave
+     * e a árvore é construída balanceada em tempo linear, sem inserções individuais.
      * @param original a árvore binária de busca original.
      * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
      */
+    @SuppressWarnings("unchecked")
     public ABB(ABB<?, V> original, Function<V, K> funcaoChave) {
-        ABB<K, V> nova = new ABB<>();
-        nova = copiarArvore(original.raiz, funcaoChave, nova);
-        this.raiz = nova.raiz;
+        this(original, funcaoChave, (Comparator<K>) Comparator.naturalOrder());
     }
     
     /**
-     * Recursivamente, copia os elementos da árvore original para esta, num processo análogo ao caminhamento em ordem.
-     * @param <T> Tipo da nova chave.
-     * @param raizArvore raiz da árvore original que será copiada.
+     * Construtor da classe.
+     * Esse construtor cria uma nova árvore binária a partir de uma outra árvore binária de busca,
+     * com os mesmos itens, mas usando uma nova chave e o comparador informado.
+     * @param original a árvore binária de busca original.
+     * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+     * @param comparador o comparador a ser utilizado para organizar os elementos da nova árvore.
+     */
+    public ABB(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+        init(comparador);
+        iniciarCargaEmLote();
+        copiarItens(original, funcaoChave);
+        concluirCargaEmLote();
+    }
+    
+    /**
+     * Copia, sem recursão e em ordem, os itens da árvore original para a carga em lote desta árvore.
+     * @param <T> Tipo da chave da árvore original.
+     * @param original árvore original que será copiada.
      * @param funcaoChave função extratora da nova chave para cada item da árvore.
-     * @param novaArvore Nova árvore. Parâmetro usado para permitir o retorno da recursividade.
-     * @return A nova árvore com os itens copiados e usando a chave indicada pela função extratora.
      */
-    private <T> ABB<T, V> copiarArvore(No<?, V> raizArvore, Function<V, T> funcaoChave, ABB<T, V> novaArvore) {
-    	
-        if (raizArvore != null) {
-    		novaArvore = copiarArvore(raizArvore.getEsquerda(), funcaoChave, novaArvore);
-            V item = raizArvore.getItem();
-            T chave = funcaoChave.apply(item);
-    		novaArvore.inserir(chave, item);
-    		novaArvore = copiarArvore(raizArvore.getDireita(), funcaoChave, novaArvore);
-    	}
-        return novaArvore;
+    private <T> void copiarItens(ABB<T, V> original, Function<V, K> funcaoChave) {
+        original.garantirCargaConcluida();
+        IteradorEmOrdem<T, V> iterador = new IteradorEmOrdem<>(original.raiz);
+        
+        while (iterador.hasNext()) {
+            V item = iterador.next().getItem();
+            inserir(funcaoChave.apply(item), item);
+        }
     }
     
     /**
@@ -83,91 +103,368 @@ public class ABB<K, V> implements IMapeamento<K, V>{
 	 * falso: se a raiz da árvore não for null, o que significa que a árvore não está vazia.
 	 */
 	public Boolean vazia() {
+		garantirCargaConcluida();
 	    return (this.raiz == null);
 	}
+	
+	/**
+	 * Inicia o modo de carga em lote.
+	 * 
+	 * Enquanto a carga estiver em andamento, cada chamada a {@link #inserir(Object, Object)} apenas acumula o novo nó,
+	 * sem percorrer a árvore. Em {@link #concluirCargaEmLote()}, os nós acumulados e os já existentes na árvore
+	 * são ordenados uma única vez e a árvore é reconstruída perfeitamente balanceada.
+	 * Se os itens forem inseridos em ordem crescente de chave (como os produtos por identificador), a ordenação
+	 * é dispensada e a construção é linear. As demais operações concluem a carga automaticamente, caso necessário.
+	 * As inserções acumuladas não percorrem a árvore e, por isso, não entram nas métricas de {@link #getMetricas()};
+	 * o tamanho que retornam é provisório e conta as chaves repetidas, que só são descartadas na conclusão.
+	 * {@link #tamanho()} conclui a carga e retorna a quantidade exata de chaves distintas.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void iniciarCargaEmLote() {
+		if (lote == null) {
+			lote = (No<K, V>[]) new No[16];
+			tamanhoLote = 0;
+		}
+	}
+	
+	/**
+	 * Conclui a carga em lote iniciada por {@link #iniciarCargaEmLote()}, reconstruindo a árvore balanceada
+	 * com os itens existentes e os acumulados. Em caso de chaves repetidas, prevalece o último item inserido.
+	 */
+	public void concluirCargaEmLote() {
+		if (lote == null) {
+			return;
+		}
+		
+		No<K, V>[] nos = lote;
+		int quantidade = tamanhoLote;
+		lote = null;
+		tamanhoLote = 0;
+		
+		if (raiz != null) {
+			// Os nós já existentes vêm antes dos acumulados, para que estes prevaleçam em caso de chave repetida.
+			No<K, V>[] existentes = nosEmOrdem(raiz, tamanho);
+			nos = concatenar(existentes, nos, quantidade);
+			quantidade = existentes.length + quantidade;
+		}
+		
+		if (!ordenadosSemRepeticao(nos, quantidade)) {
+			// A ordenação do Java para objetos é estável: entre chaves iguais, a última inserida fica por último.
+			Arrays.sort(nos, 0, quantidade, (a, b) -> comparador.compare(a.getChave(), b.getChave()));
+			quantidade = descartarRepetidos(nos, quantidade);
+		}
+		
+		raiz = construirBalanceada(nos, 0, quantidade - 1);
+		tamanho = quantidade;
+	}
+	
+	private void garantirCargaConcluida() {
+		if (lote != null) {
+			concluirCargaEmLote();
+		}
+	}
+	
+	private void acumularNoLote(No<K, V> no) {
+		if (tamanhoLote == lote.length) {
+			lote = Arrays.copyOf(lote, tamanhoLote * 2);
+		}
+		lote[tamanhoLote++] = no;
+	}
+	
+	/**
+	 * Coleta, sem recursão, os nós da subárvore em ordem crescente de chave.
+	 * @param raizArvore raiz da subárvore.
+	 * @param quantidade quantidade de nós da subárvore.
+	 * @return vetor com os nós em ordem.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private No<K, V>[] nosEmOrdem(No<K, V> raizArvore, int quantidade) {
+		No<K, V>[] nos = (No<K, V>[]) new No[quantidade];
+		IteradorEmOrdem<K, V> iterador = new IteradorEmOrdem<>(raizArvore);
+		
+		for (int i = 0; iterador.hasNext(); i++) {
+			nos[i] = iterador.next();
+		}
+		return nos;
+	}
+	
+	private No<K, V>[] concatenar(No<K, V>[] primeiros, No<K, V>[] segundos, int quantidadeSegundos) {
+		No<K, V>[] nos = Arrays.copyOf(primeiros, primeiros.length + quantidadeSegundos);
+		System.arraycopy(segundos, 0, nos, primeiros.length, quantidadeSegundos);
+		return nos;
+	}
+	
+	private boolean ordenadosSemRepeticao(No<K, V>[] nos, int quantidade) {
+		for (int i = 1; i < quantidade; i++) {
+			if (comparador.compare(nos[i - 1].getChave(), nos[i].getChave()) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Remove, de um vetor ordenado, os nós de chave repetida, mantendo o último de cada chave.
+	 * @return a nova quantidade de nós no vetor.
+	 */
+	private int descartarRepetidos(No<K, V>[] nos, int quantidade) {
+		int destino = 0;
+		
+		for (int i = 0; i < quantidade; i++) {
+			if (i + 1 < quantidade && comparador.compare(nos[i].getChave(), nos[i + 1].getChave()) == 0) {
+				continue;
+			}
+			nos[destino++] = nos[i];
+		}
+		return destino;
+	}
+	
+	/**
+	 * Religa os nós de um vetor ordenado formando uma árvore perfeitamente balanceada: o nó central de cada
+	 * intervalo é a raiz da subárvore correspondente. A recursão tem profundidade logarítmica.
+	 * @param nos vetor de nós ordenado por chave.
+	 * @param de posição inicial do intervalo.
+	 * @param ate posição final do intervalo (inclusiva).
+	 * @return a raiz da subárvore construída.
+	 */
+	private No<K, V> construirBalanceada(No<K, V>[] nos, int de, int ate) {
+		if (de > ate) {
+			return null;
+		}
+		
+		int meio = (de + ate) >>> 1;
+		No<K, V> no = nos[meio];
+		nos[meio] = null;
+		no.setEsquerda(construirBalanceada(nos, de, meio - 1));
+		no.setDireita(construirBalanceada(nos, meio + 1, ate));
+		no.setAltura();
+		return no;
+	}
     
     @Override
     /**
-     * Método que encapsula a pesquisa recursiva de itens na árvore.
+     * Pesquisa, de forma iterativa, o item associado à chave na árvore.
      * @param chave a chave do item que será pesquisado na árvore.
      * @return o valor associado à chave.
      */
 	public V pesquisar(K chave) {
-    	comparacoes = 0;
-    	inicio = System.nanoTime();
-    	V procurado = pesquisar(raiz, chave);
-    	termino = System.nanoTime();
-    	return procurado;
-	}
-    
-    private V pesquisar(No<K, V> raizArvore, K procurado) {
     	
+    	garantirCargaConcluida();
+    	No<K, V> atual = raiz;
     	int comparacao;
     	
-    	comparacoes++;
-    	if (raizArvore == null)
-    		/// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então o item não foi encontrado.
-    		throw new NoSuchElementException("O item não foi localizado na árvore!");
-    	
-    	comparacao = comparador.compare(procurado, raizArvore.getChave());
-    	
-    	if (comparacao == 0)
-    		/// O item procurado foi encontrado.
-    		return raizArvore.getItem();
-    	else if (comparacao < 0)
-    		/// Se o item procurado for menor do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore esquerda.    
-    		return pesquisar(raizArvore.getEsquerda(), procurado);
-    	else
-    		/// Se o item procurado for maior do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore direita.
-    		return pesquisar(raizArvore.getDireita(), procurado);
-    }
+    	comparacoes = 0;
+    	inicio = System.nanoTime();
+    	try {
+        	while (true) {
+        		comparacoes++;
+        		if (atual == null)
+        			/// Se a sub-árvore alcançada for null, o item não foi encontrado.
+        			throw new NoSuchElementException("O item não foi localizado na árvore!");
+    		
+        		comparacao = comparador.compare(chave, atual.getChave());
+    		
+        		if (comparacao == 0) {
+        			/// O item procurado foi encontrado.
+        			termino = System.nanoTime();
+        			return atual.getItem();
+        		} else if (comparacao < 0)
+        			/// Se o item procurado for menor do que o item armazenado no nó atual:
+        			/// continue a pesquisa pela sub-árvore esquerda.
+        			atual = atual.getEsquerda();
+        		else
+        			/// Se o item procurado for maior do que o item armazenado no nó atual:
+        			/// continue a pesquisa pela sub-árvore direita.
+        			atual = atual.getDireita();
+        	}
+    	} finally {
+    	    if (MetricasOperacoes.ATIVAS)
+    	        metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
+    	}
+	}
     
     @Override
     /**
-     * Método que encapsula a adição recursiva de itens à árvore, associando-o à chave fornecida.
+     * Adiciona, de forma iterativa, um item à árvore, associando-o à chave fornecida.
+     * Nenhum objeto além do novo nó é alocado.
      * @param chave a chave associada ao item que será inserido na árvore.
      * @param item o item que será inserido na árvore.
      * 
-     * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @return o tamanho atualizado da árvore após a execução da operação de inserção. Durante uma carga em lote,
+     *         o valor é provisório: soma os itens já existentes e os acumulados, contando as chaves repetidas,
+     *         e é, portanto, um limite superior do tamanho que a árvore terá ao concluir a carga.
      */
     public int inserir(K chave, V item) {
-    	raiz = inserir(raiz, chave, item);
-        return tamanho;
-    }
-    
-    /**
-     * Método recursivo auxiliar para inserção de itens na árvore.
-     * @param raizArvore raiz da árvore ou subárvore atual.
-     * @param chave chave do item a ser inserido.
-     * @param item item a ser inserido.
-     * @return referência à raiz da árvore/subárvore após a inserção.
-     */
-    private No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
         
-        if (raizArvore == null) {
-            // Árvore vazia: cria um novo nó e incrementa o tamanho
-            tamanho++;
-            return new No<>(chave, item);
+        if (lote != null) {
+            // Carga em lote: o nó é apenas acumulado e a árvore é montada em concluirCargaEmLote().
+            // As repetições só são descartadas na conclusão; o tamanho retornado ainda as inclui.
+            acumularNoLote(new No<>(chave, item));
+            return tamanho + tamanhoLote;
         }
         
-        int comparacao = comparador.compare(chave, raizArvore.getChave());
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
         
-        if (comparacao < 0) {
-            // Chave menor: insere na subárvore esquerda
-            raizArvore.setEsquerda(inserir(raizArvore.getEsquerda(), chave, item));
-        } else if (comparacao > 0) {
-            // Chave maior: insere na subárvore direita
-            raizArvore.setDireita(inserir(raizArvore.getDireita(), chave, item));
-        } else {
-            // Chave já existe: atualiza o item
-            raizArvore.setItem(item);
-        }
+        try {
+            if (raiz == null) {
+                // Árvore vazia: o novo nó passa a ser a raiz
+                raiz = new No<>(chave, item);
+                tamanho++;
+                return tamanho;
+            }
+        
+            No<K, V> atual = raiz;
         
-        return raizArvore;
+            while (true) {
+                int comparacao = comparador.compare(chave, atual.getChave());
+                comparacoesOperacao++;
+
+                if (comparacao < 0) {
+                    // Chave menor: desce pela subárvore esquerda ou insere como filho esquerdo
+                    if (atual.getEsquerda() == null) {
+                        atual.setEsquerda(new No<>(chave, item));
+                        tamanho++;
+                        return tamanho;
+                    }
+                    atual = atual.getEsquerda();
+                } else if (comparacao > 0) {
+                    // Chave maior: desce pela subárvore direita ou insere como filho direito
+                    if (atual.getDireita() == null) {
+                        atual.setDireita(new No<>(chave, item));
+                        tamanho++;
+                        return tamanho;
+                    }
+                    atual = atual.getDireita();
+                } else {
+                    // Chave já existe: atualiza o item
+                    atual.setItem(item);
+                    return tamanho;
+                }
+            }
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
     }
 
+    /**
+     * Retorna a entrada de menor chave da árvore.
+     * @return a entrada de menor chave, ou {@code null} se a árvore estiver vazia.
+     */
+    public Entrada<K, V> primeiro() {
+    	garantirCargaConcluida();
+    	No<K, V> atual = raiz;
+    	
+    	if (atual == null)
+    		return null;
+    	while (atual.getEsquerda() != null)
+    		atual = atual.getEsquerda();
+    	return new Entrada<>(atual.getChave(), atual.getItem());
+    }
+    
+    /**
+     * Retorna a entrada de maior chave da árvore.
+     * @return a entrada de maior chave, ou {@code null} se a árvore estiver vazia.
+     */
+    public Entrada<K, V> ultimo() {
+    	garantirCargaConcluida();
+    	No<K, V> atual = raiz;
+    	
+    	if (atual == null)
+    		return null;
+    	while (atual.getDireita() != null)
+    		atual = atual.getDireita();
+    	return new Entrada<>(atual.getChave(), atual.getItem());
+    }
+    
+    /**
+     * Retorna a entrada de maior chave menor ou igual à chave informada (piso, ou <i>floor</i>).
+     * @param chave a chave de referência.
+     * @return a entrada encontrada, ou {@code null} se todas as chaves da árvore forem maiores que a informada.
+     */
+    public Entrada<K, V> piso(K chave) {
+    	garantirCargaConcluida();
+    	No<K, V> atual = raiz;
+    	No<K, V> candidato = null;
+    	
+    	while (atual != null) {
+    		int comparacao = comparador.compare(chave, atual.getChave());
+    		
+    		if (comparacao == 0)
+    			return new Entrada<>(atual.getChave(), atual.getItem());
+    		else if (comparacao < 0)
+    			atual = atual.getEsquerda();
+    		else {
+    			/// O nó atual é menor que a chave: é um candidato, mas pode haver um maior à direita.
+    			candidato = atual;
+    			atual = atual.getDireita();
+    		}
+    	}
+    	return (candidato == null) ? null : new Entrada<>(candidato.getChave(), candidato.getItem());
+    }
+    
+    /**
+     * Retorna a entrada de menor chave maior ou igual à chave informada (teto, ou <i>ceiling</i>).
+     * @param chave a chave de referência.
+     * @return a entrada encontrada, ou {@code null} se todas as chaves da árvore forem menores que a informada.
+     */
+    public Entrada<K, V> teto(K chave) {
+    	garantirCargaConcluida();
+    	No<K, V> atual = raiz;
+    	No<K, V> candidato = null;
+    	
+    	while (atual != null) {
+    		int comparacao = comparador.compare(chave, atual.getChave());
+    		
+    		if (comparacao == 0)
+    			return new Entrada<>(atual.getChave(), atual.getItem());
+    		else if (comparacao > 0)
+    			atual = atual.getDireita();
+    		else {
+    			/// O nó atual é maior que a chave: é um candidato, mas pode haver um menor à esquerda.
+    			candidato = atual;
+    			atual = atual.getEsquerda();
+    		}
+    	}
+    	return (candidato == null) ? null : new Entrada<>(candidato.getChave(), candidato.getItem());
+    }
+    
+    /**
+     * Retorna, de forma preguiçosa, as entradas com chave no intervalo fechado [de, ate], em ordem crescente.
+     * As subárvores fora do intervalo não são visitadas: o custo é O(log n + k) para k entradas numa árvore balanceada.
+     * @param de menor chave do intervalo.
+     * @param ate maior chave do intervalo.
+     * @return as entradas do intervalo, calculadas à medida que são iteradas.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K de, K ate) {
+    	return intervalo(de, ate, true);
+    }
+    
+    /**
+     * Retorna, de forma preguiçosa, as entradas com chave no intervalo [de, ate] ou [de, ate), em ordem crescente.
+     * @param de menor chave do intervalo.
+     * @param ate limite superior do intervalo.
+     * @param ateInclusivo indica se a chave igual a {@code ate} pertence ao intervalo.
+     * @return as entradas do intervalo, calculadas à medida que são iteradas.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K de, K ate, boolean ateInclusivo) {
+    	garantirCargaConcluida();
+    	return () -> IteradorEmOrdem.entradas(new IteradorEmOrdem<>(raiz, comparador, de, ate, ateInclusivo));
+    }
+    
+    /**
+     * Retorna, de forma preguiçosa e em ordem crescente, as entradas cuja chave começa pelo prefixo informado.
+     * Válido apenas para árvores de chaves {@code String} ordenadas pela ordem natural (o comparador padrão):
+     * nessa ordem, as chaves com o prefixo são contíguas e o custo é O(log n + k) para k entradas.
+     * @param prefixo o prefixo procurado; o prefixo vazio seleciona todas as entradas.
+     * @return as entradas com o prefixo, calculadas à medida que são iteradas.
+     */
+    public Iterable<Entrada<K, V>> prefixo(String prefixo) {
+    	garantirCargaConcluida();
+    	return () -> IteradorEmOrdem.entradas(IteradorEmOrdem.comPrefixo(raiz, comparador, prefixo));
+    }
+    
     @Override 
     public String toString(){
     	return percorrer();
@@ -179,111 +476,164 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     }
 
     public String caminhamentoEmOrdem() {
-    	return caminhamentoEmOrdem(raiz);
+    	StringBuilder resultado = new StringBuilder();
+    	try {
+    		caminhamentoEmOrdem(resultado);
+    	} catch (IOException excecao) {
+    		// StringBuilder não lança IOException
+    		throw new UncheckedIOException(excecao);
+    	}
+    	return resultado.toString();
     }
     
     /**
-     * Método recursivo auxiliar para realizar o caminhamento em ordem.
-     * @param raizArvore raiz da árvore ou subárvore atual.
-     * @return String com os itens da árvore em ordem.
+     * Realiza o caminhamento em ordem de forma iterativa, escrevendo cada item, seguido de uma quebra de linha,
+     * diretamente no destino informado. O tempo é linear na quantidade de itens e a memória auxiliar
+     * é proporcional à altura da árvore.
+     * @param destino destino dos itens (por exemplo, um {@link StringBuilder}, {@link java.io.Writer} ou {@link java.io.PrintStream}).
+     * @throws IOException em caso de erro de escrita no destino.
      */
-    private String caminhamentoEmOrdem(No<K, V> raizArvore) {
-        
-        if (raizArvore == null) {
-            return "";
-        }
-        
-        String resultado = "";
-        
-        // Percorre a subárvore esquerda
-        resultado += caminhamentoEmOrdem(raizArvore.getEsquerda());
-        
-        // Visita a raiz
-        resultado += raizArvore.getItem().toString() + "\n";
-        
-        // Percorre a subárvore direita
-        resultado += caminhamentoEmOrdem(raizArvore.getDireita());
-        
-        return resultado;
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+    	garantirCargaConcluida();
+    	IteradorEmOrdem<K, V> iterador = new IteradorEmOrdem<>(raiz);
+    	
+    	while (iterador.hasNext()) {
+    		destino.append(iterador.next().getItem().toString()).append('\n');
+    	}
     }
 
     @Override
     /**
-     * Método que encapsula a remoção recursiva de um item da árvore.
+     * Remove, de forma iterativa, o item associado à chave da árvore.
      * @param chave a chave do item que deverá ser localizado e removido da árvore.
      * @return o valor associado ao item removido.
      */
     public V remover(K chave) {
-    	@SuppressWarnings("unchecked")
-        V[] itemRemovido = (V[]) new Object[1];
-        raiz = remover(raiz, chave, itemRemovido);
-        return itemRemovido[0];
-    }
-    
-    /**
-     * Método recursivo auxiliar para remoção de itens da árvore.
-     * @param raizArvore raiz da árvore ou subárvore atual.
-     * @param chave chave do item a ser removido.
-     * @param itemRemovido array auxiliar para retornar o item removido.
-     * @return referência à raiz da árvore/subárvore após a remoção.
-     */
-    private No<K, V> remover(No<K, V> raizArvore, K chave, V[] itemRemovido) {
         
-        if (raizArvore == null) {
-            throw new NoSuchElementException("O item não foi localizado na árvore!");
-        }
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
         
-        int comparacao = comparador.compare(chave, raizArvore.getChave());
+        try {
+            garantirCargaConcluida();
+            No<K, V> pai = null;
+            No<K, V> atual = raiz;
         
-        if (comparacao < 0) {
-            // Chave menor: remove da subárvore esquerda
-            raizArvore.setEsquerda(remover(raizArvore.getEsquerda(), chave, itemRemovido));
-        } else if (comparacao > 0) {
-            // Chave maior: remove da subárvore direita
-            raizArvore.setDireita(remover(raizArvore.getDireita(), chave, itemRemovido));
-        } else {
-            // Item encontrado: processa a remoção
-            itemRemovido[0] = raizArvore.getItem();
-            tamanho--;
+            // Localiza o nó a ser removido, mantendo a referência a seu pai
+            while (atual != null) {
+                int comparacao = comparador.compare(chave, atual.getChave());
+                comparacoesOperacao++;
+
+                if (comparacao == 0)
+                    break;
             
-            // Caso 1: Nó sem filhos ou com apenas um filho
-            if (raizArvore.getEsquerda() == null) {
-                return raizArvore.getDireita();
-            } else if (raizArvore.getDireita() == null) {
-                return raizArvore.getEsquerda();
+                pai = atual;
+                atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
             }
+        
+            if (atual == null) {
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            }
+        
+            V itemRemovido = atual.getItem();
+            tamanho--;
+        
+            if (atual.getEsquerda() != null && atual.getDireita() != null) {
+                // Caso 2: Nó com dois filhos
+                // Encontra o menor nó da subárvore direita (sucessor) e seu pai
+                No<K, V> paiSucessor = atual;
+                No<K, V> sucessor = atual.getDireita();
+                while (sucessor.getEsquerda() != null) {
+                    paiSucessor = sucessor;
+                    sucessor = sucessor.getEsquerda();
+                }
             
-            // Caso 2: Nó com dois filhos
-            // Encontra o menor nó da subárvore direita (sucessor)
-            No<K, V> sucessor = encontrarMenor(raizArvore.getDireita());
-            
-            // Substitui os dados do nó atual pelos dados do sucessor
-            raizArvore.setChave(sucessor.getChave());
-            raizArvore.setItem(sucessor.getItem());
+                // Substitui os dados do nó atual pelos dados do sucessor
+                atual.setChave(sucessor.getChave());
+                atual.setItem(sucessor.getItem());
             
-            // Remove o sucessor da subárvore direita
-            @SuppressWarnings("unchecked")
-            V[] temp = (V[]) new Object[1];
-            raizArvore.setDireita(remover(raizArvore.getDireita(), sucessor.getChave(), temp));
-        }
+                // Desliga o sucessor, que não tem filho esquerdo
+                substituirFilho(paiSucessor, sucessor, sucessor.getDireita());
+            } else {
+                // Caso 1: Nó sem filhos ou com apenas um filho
+                No<K, V> filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+                substituirFilho(pai, atual, filho);
+            }
         
-        return raizArvore;
+            return itemRemovido;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
     }
     
     /**
-     * Encontra o menor nó de uma subárvore (nó mais à esquerda).
-     * @param raizArvore raiz da subárvore.
-     * @return o menor nó da subárvore.
+     * Substitui, no nó pai, a referência ao filho indicado por um novo nó.
+     * @param pai o nó pai, ou {@code null} caso o filho seja a raiz da árvore.
+     * @param filho o filho a ser substituído.
+     * @param novoFilho o nó que ocupará o lugar do filho.
      */
-    private No<K, V> encontrarMenor(No<K, V> raizArvore) {
-        while (raizArvore.getEsquerda() != null) {
-            raizArvore = raizArvore.getEsquerda();
-        }
-        return raizArvore;
+    private void substituirFilho(No<K, V> pai, No<K, V> filho, No<K, V> novoFilho) {
+        if (pai == null)
+            raiz = novoFilho;
+        else if (pai.getEsquerda() == filho)
+            pai.setEsquerda(novoFilho);
+        else
+            pai.setDireita(novoFilho);
     }
-
+    
+    /**
+     * Retorna um iterador das entradas da árvore, em ordem crescente de chave.
+     * A árvore não deve ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+    	garantirCargaConcluida();
+    	return IteradorEmOrdem.entradas(raiz);
+    }
+    
+    /**
+     * Retorna um spliterator das entradas da árvore, em ordem crescente de chave, que se divide por subárvores.
+     */
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+    	garantirCargaConcluida();
+    	return new SpliteratorArvore<>(raiz, tamanho);
+    }
+    
+	/**
+	 * Retorna a raiz da árvore, para que ela possa ser serializada.
+	 * @return a raiz da árvore, ou {@code null} se estiver vazia.
+	 */
+	No<K, V> getRaiz() {
+		garantirCargaConcluida();
+		return raiz;
+	}
+	
+	/**
+	 * Substitui o conteúdo da árvore por uma estrutura de nós já montada, como a restaurada de um snapshot.
+	 * @param raiz raiz da estrutura de nós, organizada de acordo com o comparador desta árvore.
+	 * @param tamanho quantidade de nós da estrutura.
+	 */
+	void restaurar(No<K, V> raiz, int tamanho) {
+		lote = null;
+		tamanhoLote = 0;
+		this.raiz = raiz;
+		this.tamanho = tamanho;
+	}
+	
+	/**
+	 * Retorna a altura, as profundidades dos nós e o histograma de profundidades da árvore.
+	 * Como não há balanceamento, a razão entre a altura e a altura mínima revela a degeneração da árvore.
+	 */
+	@Override
+	public EstatisticasEstrutura estatisticas() {
+		garantirCargaConcluida();
+		return EstatisticasEstrutura.deArvore("ABB", raiz, tamanho);
+	}
+	
 	@Override
 	public int tamanho() {
+		garantirCargaConcluida();
 		return tamanho;
 	}
 	
@@ -296,4 +646,9 @@ public class ABB<K, V> implements IMapeamento<K, V>{
 	public double getTempo() {
 		return (termino - inicio) / 1_000_000.0;
 	}
+	
+	@Override
+	public MetricasOperacoes getMetricas() {
+		return metricas;
+	}
 }
\ No newline at end of file
@@ -1,18 +1,30 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Function;
 
 public class AVL<K, V> implements IMapeamento<K, V> {
 
+    /** Altura máxima de uma AVL com até 2^31 nós é menor que 46; o caminho da raiz até qualquer nó cabe neste limite. */
+    private static final int CAMINHO_MAXIMO = 64;
+
     private No<K, V> raiz;
     private Comparator<K> comparador;
+    /** Pilha reutilizada com os nós visitados da raiz até o ponto de inserção ou remoção. */
+    private No<K, V>[] caminho;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("AVL") : null;
     private int tamanho;
     private long comparacoes;
     private long inicio;
     private long termino;
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private void init(Comparator<K> comparador) {
         raiz = null;
+        caminho = (No<K, V>[]) new No[CAMINHO_MAXIMO];
         tamanho = 0;
         this.comparador = comparador;
     }
@@ -32,55 +44,108 @@ public class AVL<K, V> implements IMapeamento<K, V> {
 
     @Override
     public V pesquisar(K chave) {
+        No<K, V> atual = raiz;
+        int comparacao;
+
         comparacoes = 0;
         inicio = System.nanoTime();
-        V procurado = pesquisar(raiz, chave);
-        termino = System.nanoTime();
-        return procurado;
-    }
-
-    private V pesquisar(No<K, V> raizArvore, K procurado) {
-        int comparacao;
-        
-        comparacoes++;
-        if (raizArvore == null)
-            throw new NoSuchElementException("O item não foi localizado na árvore!");
-        
-        comparacao = comparador.compare(procurado, raizArvore.getChave());
-        
-        if (comparacao == 0)
-            return raizArvore.getItem();
-        else if (comparacao < 0)
-            return pesquisar(raizArvore.getEsquerda(), procurado);
-        else
-            return pesquisar(raizArvore.getDireita(), procurado);
+        try {
+            while (true) {
+                comparacoes++;
+                if (atual == null)
+                    throw new NoSuchElementException("O item não foi localizado na árvore!");
+
+                comparacao = comparador.compare(chave, atual.getChave());
+
+                if (comparacao == 0) {
+                    termino = System.nanoTime();
+                    return atual.getItem();
+                } else if (comparacao < 0)
+                    atual = atual.getEsquerda();
+                else
+                    atual = atual.getDireita();
+            }
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
+        }
     }
 
     @Override
     public int inserir(K chave, V item) {
-        raiz = inserir(raiz, chave, item);
-        return tamanho;
-    }
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            if (raiz == null) {
+                raiz = new No<>(chave, item);
+                tamanho++;
+                return tamanho;
+            }
 
-    private No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
-        if (raizArvore == null) {
-            tamanho++;
-            return new No<>(chave, item);
-        }
+            int profundidade = 0;
+            No<K, V> atual = raiz;
+
+            while (true) {
+                caminho[profundidade++] = atual;
+                int comparacao = comparador.compare(chave, atual.getChave());
+                comparacoesOperacao++;
+
+                if (comparacao == 0) {
+                    atual.setItem(item);
+                    limparCaminho(profundidade);
+                    return tamanho;
+                }
+
+                No<K, V> proximo = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+                if (proximo == null) {
+                    if (comparacao < 0)
+                        atual.setEsquerda(new No<>(chave, item));
+                    else
+                        atual.setDireita(new No<>(chave, item));
+                    tamanho++;
+                    break;
+                }
+                atual = proximo;
+            }
 
-        int comparacao = comparador.compare(chave, raizArvore.getChave());
+            rebalancearCaminho(profundidade);
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
 
-        if (comparacao < 0) {
-            raizArvore.setEsquerda(inserir(raizArvore.getEsquerda(), chave, item));
-        } else if (comparacao > 0) {
-            raizArvore.setDireita(inserir(raizArvore.getDireita(), chave, item));
-        } else {
-            raizArvore.setItem(item);
-            return raizArvore;
+    /**
+     * Atualiza a altura e rebalanceia, de baixo para cima, os nós empilhados em {@code caminho},
+     * religando a nova raiz de cada subárvore rotacionada a seu pai.
+     * @param profundidade quantidade de nós empilhados.
+     */
+    private void rebalancearCaminho(int profundidade) {
+        for (int i = profundidade - 1; i >= 0; i--) {
+            No<K, V> no = caminho[i];
+            caminho[i] = null;
+
+            no.setAltura();
+            no.setTamanhoSubarvore();
+            No<K, V> novaRaiz = balancear(no);
+
+            if (novaRaiz != no) {
+                if (i == 0)
+                    raiz = novaRaiz;
+                else if (caminho[i - 1].getEsquerda() == no)
+                    caminho[i - 1].setEsquerda(novaRaiz);
+                else
+                    caminho[i - 1].setDireita(novaRaiz);
+            }
         }
+    }
 
-        raizArvore.setAltura();
-        return balancear(raizArvore);
+    private void limparCaminho(int profundidade) {
+        for (int i = 0; i < profundidade; i++) {
+            caminho[i] = null;
+        }
     }
 
     private No<K, V> balancear(No<K, V> raizArvore) {
@@ -89,7 +154,10 @@ public class AVL<K, V> implements IMapeamento<K, V> {
         // Rotação à direita
         if (fatorBalanceamento > 1) {
             if (raizArvore.getEsquerda().getFatorBalanceamento() < 0) {
+                EventosJfr.rotacao("AVL", "dupla esquerda-direita", raizArvore.getChave(), raizArvore.getAltura());
                 raizArvore.setEsquerda(rotacionarEsquerda(raizArvore.getEsquerda()));
+            } else {
+                EventosJfr.rotacao("AVL", "simples à direita", raizArvore.getChave(), raizArvore.getAltura());
             }
             return rotacionarDireita(raizArvore);
         }
@@ -97,7 +165,10 @@ public class AVL<K, V> implements IMapeamento<K, V> {
         // Rotação à esquerda
         if (fatorBalanceamento < -1) {
             if (raizArvore.getDireita().getFatorBalanceamento() > 0) {
+                EventosJfr.rotacao("AVL", "dupla direita-esquerda", raizArvore.getChave(), raizArvore.getAltura());
                 raizArvore.setDireita(rotacionarDireita(raizArvore.getDireita()));
+            } else {
+                EventosJfr.rotacao("AVL", "simples à esquerda", raizArvore.getChave(), raizArvore.getAltura());
             }
             return rotacionarEsquerda(raizArvore);
         }
@@ -114,6 +185,8 @@ public class AVL<K, V> implements IMapeamento<K, V> {
 
         no.setAltura();
         novaRaiz.setAltura();
+        no.setTamanhoSubarvore();
+        novaRaiz.setTamanhoSubarvore();
 
         return novaRaiz;
     }
@@ -127,56 +200,217 @@ public class AVL<K, V> implements IMapeamento<K, V> {
 
         no.setAltura();
         novaRaiz.setAltura();
+        no.setTamanhoSubarvore();
+        novaRaiz.setTamanhoSubarvore();
 
         return novaRaiz;
     }
 
     @Override
     public V remover(K chave) {
-        @SuppressWarnings("unchecked")
-        V[] itemRemovido = (V[]) new Object[1];
-        raiz = remover(raiz, chave, itemRemovido);
-        return itemRemovido[0];
-    }
-    
-    @SuppressWarnings("unchecked")
-    private No<K, V> remover(No<K, V> raizArvore, K chave, V[] itemRemovido) {
-        if (raizArvore == null)
-            throw new NoSuchElementException("O item não foi localizado na árvore!");
-    
-        int comparacao = comparador.compare(chave, raizArvore.getChave());
-    
-        if (comparacao < 0) {
-            raizArvore.setEsquerda(remover(raizArvore.getEsquerda(), chave, itemRemovido));
-        } else if (comparacao > 0) {
-            raizArvore.setDireita(remover(raizArvore.getDireita(), chave, itemRemovido));
-        } else {
-            itemRemovido[0] = raizArvore.getItem();
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            int profundidade = 0;
+            No<K, V> atual = raiz;
+
+            while (atual != null) {
+                int comparacao = comparador.compare(chave, atual.getChave());
+                comparacoesOperacao++;
+                if (comparacao == 0)
+                    break;
+
+                caminho[profundidade++] = atual;
+                atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+            }
+
+            if (atual == null) {
+                limparCaminho(profundidade);
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            }
+
+            V itemRemovido = atual.getItem();
             tamanho--;
-    
-            if (raizArvore.getEsquerda() == null) {
-                return raizArvore.getDireita();
-            } else if (raizArvore.getDireita() == null) {
-                return raizArvore.getEsquerda();
+
+            if (atual.getEsquerda() != null && atual.getDireita() != null) {
+                // O nó permanece no caminho e recebe os dados do sucessor, que é desligado da árvore.
+                caminho[profundidade++] = atual;
+                No<K, V> sucessor = atual.getDireita();
+                while (sucessor.getEsquerda() != null) {
+                    caminho[profundidade++] = sucessor;
+                    sucessor = sucessor.getEsquerda();
+                }
+                atual.setChave(sucessor.getChave());
+                atual.setItem(sucessor.getItem());
+                substituirFilho(caminho[profundidade - 1], sucessor, sucessor.getDireita());
             } else {
-                No<K, V> substituto = encontrarMenor(raizArvore.getDireita());
-                raizArvore.setChave(substituto.getChave());
-                raizArvore.setItem(substituto.getItem());
-                @SuppressWarnings("unchecked")
-                V[] temp = (V[]) new Object[1];
-                raizArvore.setDireita(remover(raizArvore.getDireita(), substituto.getChave(), temp));
+                No<K, V> filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+                substituirFilho((profundidade > 0) ? caminho[profundidade - 1] : null, atual, filho);
             }
+
+            rebalancearCaminho(profundidade);
+            return itemRemovido;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
         }
-    
-        raizArvore.setAltura();
-        return balancear(raizArvore);
     }
 
-    private No<K, V> encontrarMenor(No<K, V> raizArvore) {
-        while (raizArvore.getEsquerda() != null) {
-            raizArvore = raizArvore.getEsquerda();
+    private void substituirFilho(No<K, V> pai, No<K, V> filho, No<K, V> novoFilho) {
+        if (pai == null)
+            raiz = novoFilho;
+        else if (pai.getEsquerda() == filho)
+            pai.setEsquerda(novoFilho);
+        else
+            pai.setDireita(novoFilho);
+    }
+
+    /**
+     * Retorna a entrada de menor chave da árvore, ou {@code null} se a árvore estiver vazia.
+     */
+    public Entrada<K, V> primeiro() {
+        No<K, V> atual = raiz;
+
+        if (atual == null)
+            return null;
+        while (atual.getEsquerda() != null)
+            atual = atual.getEsquerda();
+        return new Entrada<>(atual.getChave(), atual.getItem());
+    }
+
+    /**
+     * Retorna a entrada de maior chave da árvore, ou {@code null} se a árvore estiver vazia.
+     */
+    public Entrada<K, V> ultimo() {
+        No<K, V> atual = raiz;
+
+        if (atual == null)
+            return null;
+        while (atual.getDireita() != null)
+            atual = atual.getDireita();
+        return new Entrada<>(atual.getChave(), atual.getItem());
+    }
+
+    /**
+     * Retorna a entrada de maior chave menor ou igual à chave informada (<i>floor</i>), ou {@code null} se não houver.
+     */
+    public Entrada<K, V> piso(K chave) {
+        No<K, V> atual = raiz;
+        No<K, V> candidato = null;
+
+        while (atual != null) {
+            int comparacao = comparador.compare(chave, atual.getChave());
+
+            if (comparacao == 0)
+                return new Entrada<>(atual.getChave(), atual.getItem());
+            else if (comparacao < 0)
+                atual = atual.getEsquerda();
+            else {
+                candidato = atual;
+                atual = atual.getDireita();
+            }
         }
-        return raizArvore;
+        return (candidato == null) ? null : new Entrada<>(candidato.getChave(), candidato.getItem());
+    }
+
+    /**
+     * Retorna a entrada de menor chave maior ou igual à chave informada (<i>ceiling</i>), ou {@code null} se não houver.
+     */
+    public Entrada<K, V> teto(K chave) {
+        No<K, V> atual = raiz;
+        No<K, V> candidato = null;
+
+        while (atual != null) {
+            int comparacao = comparador.compare(chave, atual.getChave());
+
+            if (comparacao == 0)
+                return new Entrada<>(atual.getChave(), atual.getItem());
+            else if (comparacao > 0)
+                atual = atual.getDireita();
+            else {
+                candidato = atual;
+                atual = atual.getEsquerda();
+            }
+        }
+        return (candidato == null) ? null : new Entrada<>(candidato.getChave(), candidato.getItem());
+    }
+
+    /**
+     * Retorna, de forma preguiçosa, as entradas com chave no intervalo fechado [de, ate], em ordem crescente,
+     * sem visitar as subárvores fora do intervalo.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K de, K ate) {
+        return intervalo(de, ate, true);
+    }
+
+    /**
+     * Retorna, de forma preguiçosa, as entradas com chave no intervalo [de, ate] ou [de, ate), em ordem crescente;
+     * {@code ateInclusivo} indica se a chave igual a {@code ate} pertence ao intervalo.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K de, K ate, boolean ateInclusivo) {
+        return () -> IteradorEmOrdem.entradas(new IteradorEmOrdem<>(raiz, comparador, de, ate, ateInclusivo));
+    }
+
+    /**
+     * Retorna, de forma preguiçosa e em ordem crescente, as entradas cuja chave começa pelo prefixo informado.
+     * Válido apenas para árvores de chaves {@code String} ordenadas pela ordem natural, como em {@link ABB#prefixo(String)}.
+     */
+    public Iterable<Entrada<K, V>> prefixo(String prefixo) {
+        return () -> IteradorEmOrdem.entradas(IteradorEmOrdem.comPrefixo(raiz, comparador, prefixo));
+    }
+
+    /**
+     * Retorna o item de posição k na ordem crescente de chaves (estatística de ordem), em tempo logarítmico,
+     * usando a quantidade de nós de cada subárvore.
+     * @param k posição do item, começando em 0.
+     * @return o item na posição k.
+     * @throws IndexOutOfBoundsException se k não estiver entre 0 e tamanho() - 1.
+     */
+    public V selecionar(int k) {
+        if (k < 0 || k >= tamanho)
+            throw new IndexOutOfBoundsException("Posição inválida: " + k);
+
+        No<K, V> atual = raiz;
+
+        while (true) {
+            int tamanhoEsquerda = (atual.getEsquerda() != null) ? atual.getEsquerda().getTamanhoSubarvore() : 0;
+
+            if (k < tamanhoEsquerda) {
+                atual = atual.getEsquerda();
+            } else if (k == tamanhoEsquerda) {
+                return atual.getItem();
+            } else {
+                k -= tamanhoEsquerda + 1;
+                atual = atual.getDireita();
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de chaves da árvore menores que a chave informada, em tempo logarítmico.
+     * Se a chave estiver na árvore, o valor retornado é a sua posição (começando em 0) na ordem crescente.
+     * @param chave a chave de referência (não precisa estar na árvore).
+     * @return a quantidade de chaves que precedem a chave informada.
+     */
+    public int posicao(K chave) {
+        No<K, V> atual = raiz;
+        int anteriores = 0;
+
+        while (atual != null) {
+            int comparacao = comparador.compare(chave, atual.getChave());
+            int tamanhoEsquerda = (atual.getEsquerda() != null) ? atual.getEsquerda().getTamanhoSubarvore() : 0;
+
+            if (comparacao < 0) {
+                atual = atual.getEsquerda();
+            } else if (comparacao == 0) {
+                return anteriores + tamanhoEsquerda;
+            } else {
+                anteriores += tamanhoEsquerda + 1;
+                atual = atual.getDireita();
+            }
+        }
+        return anteriores;
     }
 
     @Override
@@ -185,19 +419,38 @@ public class AVL<K, V> implements IMapeamento<K, V> {
     }
 
     public String caminhamentoEmOrdem() {
-        return caminhamentoEmOrdem(raiz);
+        StringBuilder resultado = new StringBuilder();
+        try {
+            caminhamentoEmOrdem(resultado);
+        } catch (IOException excecao) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(excecao);
+        }
+        return resultado.toString();
     }
 
-    private String caminhamentoEmOrdem(No<K, V> raizArvore) {
-        if (raizArvore == null)
-            return "";
+    /**
+     * Realiza o caminhamento em ordem de forma iterativa, escrevendo cada item, seguido de uma quebra de linha,
+     * diretamente no destino informado.
+     * @param destino destino dos itens.
+     * @throws IOException em caso de erro de escrita no destino.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+        IteradorEmOrdem<K, V> iterador = new IteradorEmOrdem<>(raiz);
+
+        while (iterador.hasNext()) {
+            destino.append(iterador.next().getItem().toString()).append('\n');
+        }
+    }
 
-        String resultado = "";
-        resultado += caminhamentoEmOrdem(raizArvore.getEsquerda());
-        resultado += raizArvore.getItem().toString() + "\n";
-        resultado += caminhamentoEmOrdem(raizArvore.getDireita());
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return IteradorEmOrdem.entradas(raiz);
+    }
 
-        return resultado;
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        return new SpliteratorArvore<>(raiz, tamanho);
     }
 
     @Override
@@ -205,6 +458,24 @@ public class AVL<K, V> implements IMapeamento<K, V> {
         return percorrer();
     }
 
+    No<K, V> getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Substitui o conteúdo da árvore por uma estrutura de nós já montada e balanceada, com alturas e
+     * quantidades de nós das subárvores atualizadas, como a restaurada de um snapshot.
+     */
+    void restaurar(No<K, V> raiz, int tamanho) {
+        this.raiz = raiz;
+        this.tamanho = tamanho;
+    }
+
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        return EstatisticasEstrutura.deArvore("AVL", raiz, tamanho);
+    }
+
     @Override
     public int tamanho() {
         return tamanho;
@@ -219,4 +490,9 @@ public class AVL<K, V> implements IMapeamento<K, V> {
     public double getTempo() {
         return (termino - inicio) / 1_000_000.0;
     }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
 }
\ No newline at end of file
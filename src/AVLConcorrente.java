@@ -0,0 +1,331 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Árvore AVL para uso concorrente, otimizada para leituras.
+ * 
+ * Inserções e remoções não alteram nós já publicados: os nós do caminho da raiz até o ponto de alteração
+ * (e os envolvidos em rotações) são copiados, e a nova versão da árvore é publicada de uma só vez ao final
+ * da operação (cópia do caminho). Leitores nunca bloqueiam: cada pesquisa ou iteração lê a versão publicada
+ * no momento em que começa e a percorre sem travas, enxergando sempre uma árvore consistente.
+ * Escritores são serializados entre si por uma trava.
+ * @param <K> tipo das chaves.
+ * @param <V> tipo dos itens.
+ */
+public class AVLConcorrente<K, V> implements IMapeamento<K, V> {
+
+    /** Versão imutável da árvore: raiz e tamanho publicados juntos. */
+    private static final class Versao<K, V> {
+        private final No<K, V> raiz;
+        private final int tamanho;
+
+        private Versao(No<K, V> raiz, int tamanho) {
+            this.raiz = raiz;
+            this.tamanho = tamanho;
+        }
+    }
+
+    private volatile Versao<K, V> versao;
+    private final Comparator<K> comparador;
+    private final ReentrantLock travaEscrita;
+    private final MedicaoPorThread medicao;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("AVLConcorrente") : null;
+
+    // Resultados auxiliares das operações de escrita, protegidos pela trava de escrita.
+    private boolean cresceu;
+    private V itemRemovido;
+    private long comparacoesEscrita;
+
+    @SuppressWarnings("unchecked")
+    public AVLConcorrente() {
+        this((Comparator<K>) Comparator.naturalOrder());
+    }
+
+    public AVLConcorrente(Comparator<K> comparador) {
+        this.comparador = comparador;
+        this.versao = new Versao<>(null, 0);
+        this.travaEscrita = new ReentrantLock();
+        this.medicao = new MedicaoPorThread();
+    }
+
+    public Boolean vazia() {
+        return (versao.raiz == null);
+    }
+
+    /**
+     * Pesquisa o item associado à chave na versão publicada da árvore, sem travas.
+     */
+    @Override
+    public V pesquisar(K chave) {
+        long inicio = System.nanoTime();
+        long comparacoes = 0;
+        No<K, V> atual = versao.raiz;
+
+        while (true) {
+            comparacoes++;
+            if (atual == null) {
+                registrarPesquisa(chave, comparacoes, inicio);
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            }
+
+            int comparacao = comparador.compare(chave, atual.getChave());
+
+            if (comparacao == 0) {
+                registrarPesquisa(chave, comparacoes, inicio);
+                return atual.getItem();
+            } else if (comparacao < 0)
+                atual = atual.getEsquerda();
+            else
+                atual = atual.getDireita();
+        }
+    }
+
+    private void registrarPesquisa(K chave, long comparacoes, long inicio) {
+        long termino = System.nanoTime();
+        medicao.registrar(comparacoes, inicio, termino);
+        if (MetricasOperacoes.ATIVAS)
+            metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, termino, chave);
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        long comparacoesOperacao = 0;
+
+        travaEscrita.lock();
+        try {
+            Versao<K, V> atual = versao;
+            cresceu = false;
+            comparacoesEscrita = 0;
+            No<K, V> novaRaiz = inserir(atual.raiz, chave, item);
+            versao = new Versao<>(novaRaiz, cresceu ? atual.tamanho + 1 : atual.tamanho);
+            return versao.tamanho;
+        } finally {
+            comparacoesOperacao = comparacoesEscrita;
+            travaEscrita.unlock();
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    private No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
+        if (raizArvore == null) {
+            cresceu = true;
+            return new No<>(chave, item);
+        }
+
+        comparacoesEscrita++;
+        int comparacao = comparador.compare(chave, raizArvore.getChave());
+        No<K, V> copia = copiar(raizArvore);
+
+        if (comparacao < 0) {
+            copia.setEsquerda(inserir(raizArvore.getEsquerda(), chave, item));
+        } else if (comparacao > 0) {
+            copia.setDireita(inserir(raizArvore.getDireita(), chave, item));
+        } else {
+            copia.setItem(item);
+            return copia;
+        }
+
+        return balancear(copia);
+    }
+
+    @Override
+    public V remover(K chave) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        long comparacoesOperacao = 0;
+
+        travaEscrita.lock();
+        try {
+            Versao<K, V> atual = versao;
+            comparacoesEscrita = 0;
+            No<K, V> novaRaiz = remover(atual.raiz, chave);
+            versao = new Versao<>(novaRaiz, atual.tamanho - 1);
+            V removido = itemRemovido;
+            itemRemovido = null;
+            return removido;
+        } finally {
+            comparacoesOperacao = comparacoesEscrita;
+            travaEscrita.unlock();
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    private No<K, V> remover(No<K, V> raizArvore, K chave) {
+        if (raizArvore == null)
+            throw new NoSuchElementException("O item não foi localizado na árvore!");
+
+        comparacoesEscrita++;
+        int comparacao = comparador.compare(chave, raizArvore.getChave());
+        No<K, V> copia;
+
+        if (comparacao < 0) {
+            copia = copiar(raizArvore);
+            copia.setEsquerda(remover(raizArvore.getEsquerda(), chave));
+        } else if (comparacao > 0) {
+            copia = copiar(raizArvore);
+            copia.setDireita(remover(raizArvore.getDireita(), chave));
+        } else {
+            itemRemovido = raizArvore.getItem();
+
+            if (raizArvore.getEsquerda() == null)
+                return raizArvore.getDireita();
+            if (raizArvore.getDireita() == null)
+                return raizArvore.getEsquerda();
+
+            // Dois filhos: um novo nó com os dados do sucessor substitui o removido.
+            No<K, V> sucessor = raizArvore.getDireita();
+            while (sucessor.getEsquerda() != null)
+                sucessor = sucessor.getEsquerda();
+
+            copia = new No<>(sucessor.getChave(), sucessor.getItem());
+            copia.setEsquerda(raizArvore.getEsquerda());
+            copia.setDireita(removerMenor(raizArvore.getDireita()));
+        }
+
+        return balancear(copia);
+    }
+
+    private No<K, V> removerMenor(No<K, V> raizArvore) {
+        if (raizArvore.getEsquerda() == null)
+            return raizArvore.getDireita();
+
+        No<K, V> copia = copiar(raizArvore);
+        copia.setEsquerda(removerMenor(raizArvore.getEsquerda()));
+        return balancear(copia);
+    }
+
+    /**
+     * Cria uma cópia não publicada do nó, com os mesmos filhos.
+     */
+    private No<K, V> copiar(No<K, V> no) {
+        No<K, V> copia = new No<>(no.getChave(), no.getItem());
+        copia.setEsquerda(no.getEsquerda());
+        copia.setDireita(no.getDireita());
+        copia.setAltura();
+        copia.setTamanhoSubarvore();
+        return copia;
+    }
+
+    /**
+     * Atualiza e rebalanceia um nó ainda não publicado. Os filhos envolvidos nas rotações são copiados antes de alterados.
+     */
+    private No<K, V> balancear(No<K, V> raizArvore) {
+        raizArvore.setAltura();
+        raizArvore.setTamanhoSubarvore();
+        int fatorBalanceamento = raizArvore.getFatorBalanceamento();
+
+        if (fatorBalanceamento > 1) {
+            if (raizArvore.getEsquerda().getFatorBalanceamento() < 0) {
+                raizArvore.setEsquerda(rotacionarEsquerda(copiar(raizArvore.getEsquerda())));
+            }
+            return rotacionarDireita(raizArvore);
+        }
+
+        if (fatorBalanceamento < -1) {
+            if (raizArvore.getDireita().getFatorBalanceamento() > 0) {
+                raizArvore.setDireita(rotacionarDireita(copiar(raizArvore.getDireita())));
+            }
+            return rotacionarEsquerda(raizArvore);
+        }
+
+        return raizArvore;
+    }
+
+    private No<K, V> rotacionarDireita(No<K, V> no) {
+        No<K, V> novaRaiz = copiar(no.getEsquerda());
+
+        no.setEsquerda(novaRaiz.getDireita());
+        novaRaiz.setDireita(no);
+
+        no.setAltura();
+        no.setTamanhoSubarvore();
+        novaRaiz.setAltura();
+        novaRaiz.setTamanhoSubarvore();
+
+        return novaRaiz;
+    }
+
+    private No<K, V> rotacionarEsquerda(No<K, V> no) {
+        No<K, V> novaRaiz = copiar(no.getDireita());
+
+        no.setDireita(novaRaiz.getEsquerda());
+        novaRaiz.setEsquerda(no);
+
+        no.setAltura();
+        no.setTamanhoSubarvore();
+        novaRaiz.setAltura();
+        novaRaiz.setTamanhoSubarvore();
+
+        return novaRaiz;
+    }
+
+    /**
+     * Retorna as estatísticas da versão publicada no momento da chamada, sem bloquear os escritores.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        Versao<K, V> atual = versao;
+        return EstatisticasEstrutura.deArvore("AVLConcorrente", atual.raiz, atual.tamanho);
+    }
+
+    @Override
+    public int tamanho() {
+        return versao.tamanho;
+    }
+
+    @Override
+    public String percorrer() {
+        StringBuilder resultado = new StringBuilder();
+
+        for (Entrada<K, V> entrada : this) {
+            resultado.append(entrada.getValor().toString()).append('\n');
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Retorna um iterador das entradas da versão publicada no momento da chamada, em ordem crescente de chave.
+     * Alterações posteriores não afetam a iteração.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return IteradorEmOrdem.entradas(versao.raiz);
+    }
+
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        Versao<K, V> atual = versao;
+        return new SpliteratorArvore<>(atual.raiz, atual.tamanho);
+    }
+
+    /**
+     * Retorna a quantidade de comparações da última pesquisa realizada pela thread atual.
+     */
+    @Override
+    public long getComparacoes() {
+        return medicao.getComparacoes();
+    }
+
+    /**
+     * Retorna o tempo, em milissegundos, da última pesquisa realizada pela thread atual.
+     */
+    @Override
+    public double getTempo() {
+        return medicao.getTempo();
+    }
+    
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}
@@ -0,0 +1,547 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Árvore AVL especializada em chaves inteiras primitivas.
+ *
+ * Os nós não são objetos: cada nó é uma posição de vetores paralelos ({@code chave}, {@code esq}, {@code dir},
+ * {@code altura} e {@code valor}), e os filhos são referenciados pelo índice da posição. A posição 0 representa
+ * a ausência de nó, com altura 0. As posições liberadas por remoções formam uma lista encadeada pelo vetor
+ * {@code esq} e são reaproveitadas pelas inserções seguintes; os vetores dobram de capacidade quando não há
+ * posição livre. As comparações são feitas diretamente entre valores {@code int}, sem conversão para
+ * {@code Integer} nem chamadas a um {@link java.util.Comparator}.
+ * @param <V> tipo dos valores armazenados.
+ */
+public class AVLInt<V> implements IMapeamento<Integer, V> {
+
+    private static final int CAPACIDADE_PADRAO = 16;
+    /** Altura máxima de uma AVL com até 2^31 nós é menor que 46; o caminho da raiz até qualquer nó cabe neste limite. */
+    private static final int CAMINHO_MAXIMO = 64;
+    private static final int NENHUM = 0;
+
+    private int[] chave;
+    private int[] esq;
+    private int[] dir;
+    private byte[] altura;
+    private Object[] valor;
+
+    private int raiz;
+    /** Primeira posição da lista de posições liberadas, encadeada por {@code esq}. */
+    private int livre;
+    /** Próxima posição nunca utilizada. */
+    private int proximaPosicao;
+    /** Pilha reutilizada com os nós visitados da raiz até o ponto de inserção ou remoção. */
+    private final int[] caminho;
+    private int tamanho;
+    private long comparacoes;
+    private long comparacoesOperacao; // comparações da última pesquisa, inserção ou remoção.
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas;
+
+    /**
+     * Construtor da classe.
+     * @param capacidade quantidade de nós para a qual os vetores são alocados inicialmente.
+     */
+    public AVLInt(int capacidade) {
+        this(capacidade, MetricasOperacoes.ATIVAS);
+    }
+
+    /**
+     * Construtor para árvores embutidas em outra estrutura que já acumula as métricas das operações
+     * (como {@link ConjuntoAdaptativo}), evitando contabilizá-las duas vezes.
+     * @param capacidade quantidade de nós para a qual os vetores são alocados inicialmente.
+     * @param acumularMetricas indica se a árvore deve acumular suas próprias métricas.
+     */
+    AVLInt(int capacidade, boolean acumularMetricas) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade inválida para a árvore.");
+        }
+        // A posição 0 é reservada para representar a ausência de nó
+        chave = new int[capacidade + 1];
+        esq = new int[capacidade + 1];
+        dir = new int[capacidade + 1];
+        altura = new byte[capacidade + 1];
+        valor = new Object[capacidade + 1];
+        caminho = new int[CAMINHO_MAXIMO];
+        metricas = (acumularMetricas && MetricasOperacoes.ATIVAS) ? new MetricasOperacoes("AVLInt") : null;
+        raiz = NENHUM;
+        livre = NENHUM;
+        proximaPosicao = 1;
+        tamanho = 0;
+    }
+
+    public AVLInt() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    public Boolean vazia() {
+        return (raiz == NENHUM);
+    }
+
+    private int novoNo(int chaveNo, V item) {
+        int no;
+
+        if (livre != NENHUM) {
+            no = livre;
+            livre = esq[no];
+        } else {
+            if (proximaPosicao == chave.length) {
+                crescer();
+            }
+            no = proximaPosicao++;
+        }
+        chave[no] = chaveNo;
+        valor[no] = item;
+        esq[no] = NENHUM;
+        dir[no] = NENHUM;
+        altura[no] = 1;
+        return no;
+    }
+
+    private void liberarNo(int no) {
+        valor[no] = null;
+        dir[no] = NENHUM;
+        altura[no] = 0;
+        esq[no] = livre;
+        livre = no;
+    }
+
+    private void crescer() {
+        int capacidade = chave.length * 2;
+
+        chave = Arrays.copyOf(chave, capacidade);
+        esq = Arrays.copyOf(esq, capacidade);
+        dir = Arrays.copyOf(dir, capacidade);
+        altura = Arrays.copyOf(altura, capacidade);
+        valor = Arrays.copyOf(valor, capacidade);
+    }
+
+    /**
+     * Pesquisa o item associado à chave informada.
+     * @param chaveProcurada a chave procurada.
+     * @return o item associado à chave.
+     * @throws NoSuchElementException caso a chave não esteja na árvore.
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisar(int chaveProcurada) {
+        int atual = raiz;
+
+        comparacoes = 0;
+        inicio = System.nanoTime();
+        try {
+            while (true) {
+                comparacoes++;
+                if (atual == NENHUM)
+                    throw new NoSuchElementException("O item não foi localizado na árvore!");
+
+                int chaveAtual = chave[atual];
+                if (chaveProcurada == chaveAtual) {
+                    termino = System.nanoTime();
+                    return (V) valor[atual];
+                }
+                atual = (chaveProcurada < chaveAtual) ? esq[atual] : dir[atual];
+            }
+        } finally {
+            comparacoesOperacao = comparacoes;
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chaveProcurada);
+        }
+    }
+
+    /**
+     * Verifica se a chave está na árvore, sem lançar exceção quando ela não é encontrada.
+     * @param chaveProcurada a chave procurada.
+     * @return true se a chave estiver na árvore.
+     */
+    public boolean contem(int chaveProcurada) {
+        int atual = raiz;
+
+        comparacoes = 0;
+        while (atual != NENHUM) {
+            comparacoes++;
+            int chaveAtual = chave[atual];
+            if (chaveProcurada == chaveAtual)
+                return true;
+            atual = (chaveProcurada < chaveAtual) ? esq[atual] : dir[atual];
+        }
+        return false;
+    }
+
+    @Override
+    public V pesquisar(Integer chaveProcurada) {
+        return pesquisar(chaveProcurada.intValue());
+    }
+
+    /**
+     * Insere o item associado à chave informada. Caso a chave já exista, seu valor é substituído.
+     * @param chaveNova a chave do item.
+     * @param item o item a ser armazenado.
+     * @return o tamanho atualizado da árvore.
+     */
+    public int inserir(int chaveNova, V item) {
+        comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            if (raiz == NENHUM) {
+                raiz = novoNo(chaveNova, item);
+                tamanho++;
+                return tamanho;
+            }
+
+            int profundidade = 0;
+            int atual = raiz;
+
+            while (true) {
+                caminho[profundidade++] = atual;
+                comparacoesOperacao++;
+
+                if (chaveNova == chave[atual]) {
+                    valor[atual] = item;
+                    return tamanho;
+                }
+
+                int proximo = (chaveNova < chave[atual]) ? esq[atual] : dir[atual];
+                if (proximo == NENHUM) {
+                    // novoNo pode realocar os vetores; a ligação ao pai é feita depois da alocação
+                    int no = novoNo(chaveNova, item);
+                    if (chaveNova < chave[atual])
+                        esq[atual] = no;
+                    else
+                        dir[atual] = no;
+                    tamanho++;
+                    break;
+                }
+                atual = proximo;
+            }
+
+            rebalancearCaminho(profundidade);
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chaveNova);
+        }
+    }
+
+    @Override
+    public int inserir(Integer chaveNova, V item) {
+        return inserir(chaveNova.intValue(), item);
+    }
+
+    /**
+     * Remove o item associado à chave informada.
+     * @param chaveRemovida a chave do item a ser removido.
+     * @return o valor associado ao item removido.
+     * @throws NoSuchElementException caso a chave não esteja na árvore.
+     */
+    public V remover(int chaveRemovida) {
+        comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            return removerNo(chaveRemovida);
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chaveRemovida);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removerNo(int chaveRemovida) {
+        int profundidade = 0;
+        int atual = raiz;
+
+        while (atual != NENHUM && chave[atual] != chaveRemovida) {
+            comparacoesOperacao++;
+            caminho[profundidade++] = atual;
+            atual = (chaveRemovida < chave[atual]) ? esq[atual] : dir[atual];
+        }
+
+        if (atual == NENHUM) {
+            throw new NoSuchElementException("O item não foi localizado na árvore!");
+        }
+        comparacoesOperacao++;
+
+        V itemRemovido = (V) valor[atual];
+        tamanho--;
+
+        if (esq[atual] != NENHUM && dir[atual] != NENHUM) {
+            // Nó com dois filhos: recebe a chave e o valor do sucessor, que é então desligado
+            caminho[profundidade++] = atual;
+            int sucessor = dir[atual];
+            while (esq[sucessor] != NENHUM) {
+                caminho[profundidade++] = sucessor;
+                sucessor = esq[sucessor];
+            }
+
+            chave[atual] = chave[sucessor];
+            valor[atual] = valor[sucessor];
+            substituirFilho(caminho[profundidade - 1], sucessor, dir[sucessor]);
+            liberarNo(sucessor);
+        } else {
+            int filho = (esq[atual] != NENHUM) ? esq[atual] : dir[atual];
+            substituirFilho((profundidade == 0) ? NENHUM : caminho[profundidade - 1], atual, filho);
+            liberarNo(atual);
+        }
+
+        rebalancearCaminho(profundidade);
+        return itemRemovido;
+    }
+
+    @Override
+    public V remover(Integer chaveRemovida) {
+        return remover(chaveRemovida.intValue());
+    }
+
+    /**
+     * Substitui, no nó pai, a referência ao filho indicado por um novo nó.
+     * @param pai o nó pai, ou {@link #NENHUM} caso o filho seja a raiz da árvore.
+     */
+    private void substituirFilho(int pai, int filho, int novoFilho) {
+        if (pai == NENHUM)
+            raiz = novoFilho;
+        else if (esq[pai] == filho)
+            esq[pai] = novoFilho;
+        else
+            dir[pai] = novoFilho;
+    }
+
+    /**
+     * Atualiza a altura e rebalanceia, de baixo para cima, os nós empilhados em {@code caminho},
+     * religando a nova raiz de cada subárvore rotacionada a seu pai.
+     * @param profundidade quantidade de nós empilhados.
+     */
+    private void rebalancearCaminho(int profundidade) {
+        for (int i = profundidade - 1; i >= 0; i--) {
+            int no = caminho[i];
+
+            atualizarAltura(no);
+            int novaRaiz = balancear(no);
+
+            if (novaRaiz != no) {
+                substituirFilho((i == 0) ? NENHUM : caminho[i - 1], no, novaRaiz);
+            }
+        }
+    }
+
+    private void atualizarAltura(int no) {
+        altura[no] = (byte) (Math.max(altura[esq[no]], altura[dir[no]]) + 1);
+    }
+
+    private int fatorBalanceamento(int no) {
+        return altura[esq[no]] - altura[dir[no]];
+    }
+
+    private int balancear(int no) {
+        int fator = fatorBalanceamento(no);
+
+        // Rotação à direita
+        if (fator > 1) {
+            // Rotação dupla: esquerda-direita
+            if (fatorBalanceamento(esq[no]) < 0) {
+                esq[no] = rotacionarEsquerda(esq[no]);
+            }
+            return rotacionarDireita(no);
+        }
+        // Rotação à esquerda
+        if (fator < -1) {
+            // Rotação dupla: direita-esquerda
+            if (fatorBalanceamento(dir[no]) > 0) {
+                dir[no] = rotacionarDireita(dir[no]);
+            }
+            return rotacionarEsquerda(no);
+        }
+        return no;
+    }
+
+    private int rotacionarDireita(int p) {
+        int u = esq[p];
+
+        esq[p] = dir[u];
+        dir[u] = p;
+        atualizarAltura(p);
+        atualizarAltura(u);
+        return u;
+    }
+
+    private int rotacionarEsquerda(int p) {
+        int z = dir[p];
+
+        dir[p] = esq[z];
+        esq[z] = p;
+        atualizarAltura(p);
+        atualizarAltura(z);
+        return z;
+    }
+
+    /**
+     * Retorna a altura da árvore, ou 0 se ela estiver vazia.
+     */
+    public int altura() {
+        return altura[raiz];
+    }
+
+    /**
+     * Percorre os nós em ordem crescente de chave, com uma pilha de índices proporcional à altura da árvore.
+     */
+    private class IteradorIndices {
+        private final int[] pilha = new int[CAMINHO_MAXIMO];
+        private int topo = 0;
+
+        IteradorIndices() {
+            empilharEsquerda(raiz);
+        }
+
+        private void empilharEsquerda(int no) {
+            while (no != NENHUM) {
+                pilha[topo++] = no;
+                no = esq[no];
+            }
+        }
+
+        boolean temProximo() {
+            return topo > 0;
+        }
+
+        int proximo() {
+            int no = pilha[--topo];
+            empilharEsquerda(dir[no]);
+            return no;
+        }
+    }
+
+    /**
+     * Retorna um iterador das entradas da árvore, em ordem crescente de chave.
+     * A árvore não deve ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<Integer, V>> iterator() {
+        return new Iterator<Entrada<Integer, V>>() {
+
+            private final IteradorIndices indices = new IteradorIndices();
+
+            @Override
+            public boolean hasNext() {
+                return indices.temProximo();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Entrada<Integer, V> next() {
+                if (!indices.temProximo()) {
+                    throw new NoSuchElementException();
+                }
+                int no = indices.proximo();
+                return new Entrada<>(chave[no], (V) valor[no]);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Entrada<Integer, V>> spliterator() {
+        return Spliterators.spliterator(iterator(), tamanho, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+
+    @Override
+    public String percorrer() {
+        return caminhamentoEmOrdem();
+    }
+
+    public String caminhamentoEmOrdem() {
+        StringBuilder resultado = new StringBuilder();
+        try {
+            caminhamentoEmOrdem(resultado);
+        } catch (IOException excecao) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(excecao);
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Escreve cada item, em ordem crescente de chave e seguido de uma quebra de linha, diretamente no destino informado.
+     * @param destino destino dos itens.
+     * @throws IOException em caso de erro de escrita no destino.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+        IteradorIndices indices = new IteradorIndices();
+
+        while (indices.temProximo()) {
+            destino.append(valor[indices.proximo()].toString()).append('\n');
+        }
+    }
+
+    /**
+     * Retorna as estatísticas da árvore, percorrendo os vetores nível a nível com duas filas de índices.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        return estatisticas("AVLInt");
+    }
+
+    EstatisticasEstrutura estatisticas(String estrutura) {
+        EstatisticasEstrutura.ColetorArvore coletor = new EstatisticasEstrutura.ColetorArvore();
+        int[] nivel = new int[Math.max(1, tamanho)];
+        int[] proximoNivel = new int[Math.max(1, tamanho)];
+        int quantidade = (raiz == NENHUM) ? 0 : 1;
+        int profundidade = 0;
+
+        nivel[0] = raiz;
+        while (quantidade > 0) {
+            profundidade++;
+            coletor.registrar(profundidade, quantidade);
+            int proximaQuantidade = 0;
+            for (int i = 0; i < quantidade; i++) {
+                int no = nivel[i];
+                if (esq[no] != NENHUM)
+                    proximoNivel[proximaQuantidade++] = esq[no];
+                if (dir[no] != NENHUM)
+                    proximoNivel[proximaQuantidade++] = dir[no];
+            }
+            int[] trocar = nivel;
+            nivel = proximoNivel;
+            proximoNivel = trocar;
+            quantidade = proximaQuantidade;
+        }
+        return coletor.concluir(estrutura, tamanho);
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+
+    /**
+     * Retorna a quantidade de comparações da última pesquisa, inserção ou remoção, para as estruturas que
+     * embutem a árvore e acumulam as métricas em seu próprio nível.
+     */
+    long getComparacoesUltimaOperacao() {
+        return comparacoesOperacao;
+    }
+
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+}
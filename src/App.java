@@ -8,6 +8,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import javax.management.JMException;
 
 public class App {
 
@@ -16,6 +17,12 @@ public class App {
      */
     static String nomeArquivoDados;
 
+    /** Nome do arquivo de snapshot binário do catálogo */
+    static final String NOME_ARQUIVO_SNAPSHOT = "catalogo.snapshot";
+
+    /** Nome do arquivo do índice de produtos por id mapeado em memória */
+    static final String NOME_ARQUIVO_INDICE = "produtos.indice";
+
     /** Scanner para leitura de dados do teclado */
     static Scanner teclado;
 
@@ -29,7 +36,19 @@ public class App {
     // Tarefa 2: Declaração das estruturas para fornecedores
     static AVL<Integer, Fornecedor> fornecedoresPorDocumento;
 
-    static TabelaHash<Integer, Lista<Fornecedor>> produtosFornecedores;
+    static MultimapaInt<Fornecedor> produtosFornecedores;
+
+    /** Índice de produtos por id, somente leitura, gerado a partir de {@link #produtosCadastradosPorId} */
+    static IndiceProdutosMapeado indiceProdutosMapeado;
+
+    /** Capacidade dos caches de pesquisa por id, por nome e por documento */
+    static final int CAPACIDADE_CACHE = 256;
+
+    static CacheMapeamento<Integer, Produto> cacheProdutosPorId;
+
+    static CacheMapeamento<String, Produto> cacheProdutosPorNome;
+
+    static CacheMapeamento<Integer, Fornecedor> cacheFornecedoresPorDocumento;
 
     static void limparTela() {
         System.out.print("\033[H\033[2J");
@@ -76,6 +95,12 @@ public class App {
         System.out.println("6 - Carregar fornecedores");
         System.out.println("7 - Relatório de fornecedor");
         System.out.println("8 - Fornecedores de um produto");
+        System.out.println("9 - Salvar snapshot do catálogo");
+        System.out.println("10 - Carregar snapshot do catálogo");
+        System.out.println("11 - Métricas das estruturas");
+        System.out.println("12 - Estatísticas das estruturas");
+        System.out.println("13 - Gerar índice de produtos mapeado em memória");
+        System.out.println("14 - Procurar produto, por id, no índice mapeado");
         System.out.println("0 - Sair");
         System.out.print("Digite sua opção: ");
         try {
@@ -86,39 +111,46 @@ public class App {
     }
 
     /**
-     * Lê os dados de um arquivo-texto e retorna uma árvore de produtos.
+     * Lê os dados de um arquivo-texto uma única vez e monta todos os índices de produtos
+     * ({@link #produtosCadastradosPorId} e {@link #produtosCadastradosPorNome}), que compartilham as mesmas instâncias.
+     * O arquivo é decodificado por {@link LeitorProdutos#ler(String)}, em paralelo se for grande; o índice por id é montado numa carga em lote e os demais índices
+     * são derivados dele. Caso os produtos já tenham sido carregados, nada é feito, para que os identificadores
+     * não sejam reatribuídos.
      */
-    static <K> ABB<K, Produto> lerProdutos(String nomeArquivoDados, Function<Produto, K> extratorDeChave) {
+    static void carregarProdutos(String nomeArquivoDados) {
 
-        Scanner arquivo = null;
-        int numProdutos;
-        String linha;
-        Produto produto;
-        ABB<K, Produto> produtosCadastrados;
-        K chave;
+        Produto[] produtos;
+
+        if (produtosCadastradosPorId != null) {
+            System.out.println("Produtos já carregados: " + quantosProdutos);
+            return;
+        }
 
         try {
-            arquivo = new Scanner(new File(nomeArquivoDados), Charset.forName("UTF-8"));
+            produtos = LeitorProdutos.ler(nomeArquivoDados);
+        } catch (IOException excecaoArquivo) {
+            System.out.println("Erro ao ler produtos: " + excecaoArquivo.getMessage());
+            return;
+        }
 
-            numProdutos = Integer.parseInt(arquivo.nextLine());
-            produtosCadastrados = new ABB<K, Produto>();
+        produtosCadastradosPorId = indexarProdutos(produtos, p -> p.idProduto);
+        produtosCadastradosPorNome = new ABB<>(produtosCadastradosPorId, p -> p.descricao);
+        quantosProdutos = produtos.length;
+        System.out.println("Produtos carregados com sucesso: " + quantosProdutos);
+    }
 
-            for (int i = 0; i < numProdutos; i++) {
-                linha = arquivo.nextLine();
-                produto = Produto.criarDoTexto(linha);
-                chave = extratorDeChave.apply(produto);
-                produtosCadastrados.inserir(chave, produto);
-            }
-            quantosProdutos = numProdutos;
-            System.out.println("Produtos carregados com sucesso: " + quantosProdutos);
+    /**
+     * Monta uma árvore de produtos, por carga em lote, com a chave indicada pela função extratora.
+     */
+    static <K> ABB<K, Produto> indexarProdutos(Produto[] produtos, Function<Produto, K> extratorDeChave) {
 
-        } catch (IOException excecaoArquivo) {
-            System.out.println("Erro ao ler produtos: " + excecaoArquivo.getMessage());
-            produtosCadastrados = null;
-        } finally {
-            if (arquivo != null)
-                arquivo.close();
+        ABB<K, Produto> produtosCadastrados = new ABB<K, Produto>();
+
+        produtosCadastrados.iniciarCargaEmLote();
+        for (Produto produto : produtos) {
+            produtosCadastrados.inserir(extratorDeChave.apply(produto), produto);
         }
+        produtosCadastrados.concluirCargaEmLote();
 
         return produtosCadastrados;
     }
@@ -136,7 +168,7 @@ public class App {
 
         // Inicializa a tabela hash de produtos-fornecedores se ainda não foi inicializada
         if (produtosFornecedores == null) {
-            produtosFornecedores = new TabelaHash<>(Math.max(10, quantosProdutos * 2));
+            produtosFornecedores = new MultimapaInt<>(Math.max(10, quantosProdutos * 2));
         }
 
         try {
@@ -166,13 +198,8 @@ public class App {
                             // Adiciona na árvore interna do fornecedor
                             fornecedor.adicionarProduto(produto);
 
-                            // Adiciona o fornecedor à lista de fornecedores do produto na Tabela Hash
-                            Lista<Fornecedor> fornecedoresDoProduto = produtosFornecedores.pesquisar(idSorteado);
-                            if (fornecedoresDoProduto == null) {
-                                fornecedoresDoProduto = new Lista<>();
-                            }
-                            fornecedoresDoProduto.inserir(fornecedor);
-                            produtosFornecedores.inserir(idSorteado, fornecedoresDoProduto);
+                            // Adiciona o fornecedor ao grupo de fornecedores do produto, com uma única sondagem
+                            produtosFornecedores.adicionar(idSorteado, fornecedor);
 
                         } catch (NoSuchElementException e) {
                             // Produto sorteado não encontrado (ignora e tenta o próximo)
@@ -198,7 +225,7 @@ public class App {
         return fornecedoresCadastrados;
     }
 
-    static <K> Produto localizarProduto(ABB<K, Produto> produtosCadastrados, K procurado) {
+    static <K> Produto localizarProduto(IMapeamento<K, Produto> produtosCadastrados, K procurado) {
 
         Produto produto;
 
@@ -227,7 +254,8 @@ public class App {
         Integer id = lerOpcao("Digite o ID do produto:", Integer.class);
         if (id == null)
             return null;
-        return localizarProduto(produtosCadastrados, id);
+        cacheProdutosPorId = emCache(cacheProdutosPorId, produtosCadastrados);
+        return localizarProduto(cacheProdutosPorId, id);
     }
 
     static Produto localizarProdutoNome(ABB<String, Produto> produtosCadastrados) {
@@ -237,7 +265,18 @@ public class App {
         }
         System.out.println("Digite o nome do produto:");
         String nome = teclado.nextLine();
-        return localizarProduto(produtosCadastrados, nome);
+        cacheProdutosPorNome = emCache(cacheProdutosPorNome, produtosCadastrados);
+        return localizarProduto(cacheProdutosPorNome, nome);
+    }
+
+    /**
+     * Retorna o cache de pesquisas do índice informado, criando um novo caso o índice tenha sido substituído
+     * (por exemplo, ao recarregar os dados), para que o cache nunca responda com itens de um índice antigo.
+     */
+    static <K, V> CacheMapeamento<K, V> emCache(CacheMapeamento<K, V> cache, IMapeamento<K, V> indice) {
+        if (cache != null && cache.getOrigem() == indice)
+            return cache;
+        return new CacheMapeamento<>(indice, CAPACIDADE_CACHE);
     }
 
     // Tarefa 4: Relatório de fornecedor
@@ -254,7 +293,8 @@ public class App {
         }
 
         try {
-            Fornecedor fornecedor = fornecedoresPorDocumento.pesquisar(documento);
+            cacheFornecedoresPorDocumento = emCache(cacheFornecedoresPorDocumento, fornecedoresPorDocumento);
+            Fornecedor fornecedor = cacheFornecedoresPorDocumento.pesquisar(documento);
             cabecalho();
             System.out.println("\n=== RELATÓRIO DE FORNECEDOR ===\n");
             System.out.println(fornecedor.toString());
@@ -311,6 +351,132 @@ public class App {
         }
     }
 
+    static void salvarSnapshot() {
+        if (produtosCadastradosPorId == null || produtosCadastradosPorId.vazia()) {
+            System.out.println("Nenhum produto cadastrado. Carregue os produtos primeiro.");
+            return;
+        }
+
+        try {
+            SnapshotCatalogo.salvar(NOME_ARQUIVO_SNAPSHOT, produtosCadastradosPorId, fornecedoresPorDocumento, produtosFornecedores);
+            System.out.println("Snapshot gravado com sucesso no arquivo: " + NOME_ARQUIVO_SNAPSHOT);
+        } catch (IOException e) {
+            System.out.println("Erro ao gravar snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restaura produtos, fornecedores e suas associações a partir do snapshot, sem reler os arquivos-texto.
+     */
+    static void carregarSnapshot() {
+        try {
+            SnapshotCatalogo snapshot = SnapshotCatalogo.carregar(NOME_ARQUIVO_SNAPSHOT);
+            produtosCadastradosPorId = snapshot.getProdutosPorId();
+            produtosCadastradosPorNome = new ABB<>(produtosCadastradosPorId, p -> p.descricao);
+            fornecedoresPorDocumento = snapshot.getFornecedoresPorDocumento();
+            produtosFornecedores = snapshot.getProdutosFornecedores();
+            quantosProdutos = produtosCadastradosPorId.tamanho();
+            System.out.println("Snapshot carregado com sucesso: " + quantosProdutos + " produtos e "
+                    + fornecedoresPorDocumento.tamanho() + " fornecedores.");
+        } catch (IOException e) {
+            System.out.println("Erro ao carregar snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gera, a partir dos produtos por id, o arquivo do índice somente leitura e o abre mapeado em memória,
+     * substituindo o índice aberto anteriormente.
+     */
+    static void gerarIndiceMapeado() {
+        if (produtosCadastradosPorId == null || produtosCadastradosPorId.vazia()) {
+            System.out.println("Nenhum produto cadastrado. Carregue os produtos primeiro (opção 3).");
+            return;
+        }
+
+        try {
+            IndiceProdutosMapeado.gerar(NOME_ARQUIVO_INDICE, produtosCadastradosPorId);
+            indiceProdutosMapeado = new IndiceProdutosMapeado(NOME_ARQUIVO_INDICE);
+            System.out.println("Índice gerado no arquivo " + NOME_ARQUIVO_INDICE + " com "
+                    + indiceProdutosMapeado.tamanho() + " produtos.");
+        } catch (IOException e) {
+            System.out.println("Erro ao gerar o índice mapeado: " + e.getMessage());
+        }
+    }
+
+    static Produto localizarProdutoIndiceMapeado() {
+        if (indiceProdutosMapeado == null) {
+            System.out.println("Índice mapeado não gerado. Execute a opção 13 primeiro.");
+            return null;
+        }
+        Integer id = lerOpcao("Digite o ID do produto:", Integer.class);
+        if (id == null)
+            return null;
+        return localizarProduto(indiceProdutosMapeado, id);
+    }
+
+    /**
+     * Exibe as métricas cumulativas (chamadas, comparações e latências) de cada estrutura carregada.
+     */
+    static void mostrarMetricas() {
+        cabecalho();
+        if (!MetricasOperacoes.ATIVAS) {
+            System.out.println("Coleta de métricas desativada (-Daeds.metricas=false).");
+            return;
+        }
+        mostrarMetricas("Produtos por id", produtosCadastradosPorId);
+        mostrarMetricas("Produtos por nome", produtosCadastradosPorNome);
+        mostrarMetricas("Fornecedores por documento", fornecedoresPorDocumento);
+        mostrarMetricas("Fornecedores por produto", produtosFornecedores);
+        mostrarMetricas("Índice mapeado de produtos por id", indiceProdutosMapeado);
+        mostrarMetricas("Cache de produtos por id", cacheProdutosPorId);
+        mostrarMetricas("Cache de produtos por nome", cacheProdutosPorNome);
+        mostrarMetricas("Cache de fornecedores por documento", cacheFornecedoresPorDocumento);
+    }
+
+    private static void mostrarMetricas(String nome, IMedicao estrutura) {
+        if (estrutura != null && estrutura.getMetricas() != null) {
+            System.out.println(nome + ":");
+            if (estrutura instanceof CacheMapeamento<?, ?> cache)
+                System.out.println(cache);
+            System.out.println(estrutura.getMetricas().resumo());
+        }
+    }
+
+    /**
+     * Exibe a forma atual de cada estrutura carregada: altura e profundidades das árvores, ocupação e cadeias das tabelas.
+     */
+    static void mostrarEstatisticas() {
+        cabecalho();
+        mostrarEstatisticas("Produtos por id", produtosCadastradosPorId);
+        mostrarEstatisticas("Produtos por nome", produtosCadastradosPorNome);
+        mostrarEstatisticas("Fornecedores por documento", fornecedoresPorDocumento);
+        mostrarEstatisticas("Fornecedores por produto", produtosFornecedores);
+        mostrarEstatisticas("Índice mapeado de produtos por id", indiceProdutosMapeado);
+    }
+
+    private static void mostrarEstatisticas(String nome, IMapeamento<?, ?> estrutura) {
+        if (estrutura != null) {
+            System.out.println(nome + ":");
+            System.out.println(estrutura.estatisticas());
+        }
+    }
+
+    /**
+     * Registra um MBean por índice, para acompanhamento por JMX (jconsole, VisualVM etc.) sem reiniciar a aplicação.
+     * Os monitores consultam os campos a cada leitura e, por isso, acompanham os índices recarregados.
+     */
+    static void registrarMonitores() {
+        try {
+            MonitorIndice.registrar("Produtos por id", () -> produtosCadastradosPorId);
+            MonitorIndice.registrar("Produtos por nome", () -> produtosCadastradosPorNome);
+            MonitorIndice.registrar("Fornecedores por documento", () -> fornecedoresPorDocumento);
+            MonitorIndice.registrar("Fornecedores por produto", () -> produtosFornecedores);
+            MonitorIndice.registrar("Índice mapeado de produtos por id", () -> indiceProdutosMapeado);
+        } catch (JMException excecao) {
+            System.out.println("Monitoramento JMX indisponível: " + excecao.getMessage());
+        }
+    }
+
     private static void mostrarProduto(Produto produto) {
 
         cabecalho();
@@ -331,13 +497,19 @@ public class App {
         if (produtosCadastrados == null || produtosCadastrados.vazia()) {
             System.out.println("Nenhum produto cadastrado nesta categoria de busca.");
         } else {
-            System.out.println(produtosCadastrados.toString());
+            // Os itens são escritos diretamente na saída, sem montar uma única string com toda a listagem
+            try {
+                produtosCadastrados.caminhamentoEmOrdem(System.out);
+            } catch (IOException excecao) {
+                System.out.println("Erro ao listar produtos: " + excecao.getMessage());
+            }
         }
     }
 
     public static void main(String[] args) {
         teclado = new Scanner(System.in, Charset.forName("UTF-8"));
         nomeArquivoDados = "produtos.txt";
+        registrarMonitores();
 
         int opcao = -1;
 
@@ -354,13 +526,18 @@ public class App {
                          System.out.println("Nenhum produto cadastrado. Carregue os produtos primeiro (opção 2 ou 3).");
                     }
                 }
-                case 2 -> produtosCadastradosPorNome = lerProdutos(nomeArquivoDados, (p -> p.descricao));
-                case 3 -> produtosCadastradosPorId = lerProdutos(nomeArquivoDados, (p -> p.idProduto));
+                case 2, 3 -> carregarProdutos(nomeArquivoDados);
                 case 4 -> mostrarProduto(localizarProdutoNome(produtosCadastradosPorNome));
                 case 5 -> mostrarProduto(localizarProdutoID(produtosCadastradosPorId));
                 case 6 -> fornecedoresPorDocumento = lerFornecedores("fornecedores.txt", (f -> f.getDocumento()));
                 case 7 -> relatorioDeFornecedor();
                 case 8 -> fornecedoresDoProduto();
+                case 9 -> salvarSnapshot();
+                case 10 -> carregarSnapshot();
+                case 11 -> mostrarMetricas();
+                case 12 -> mostrarEstatisticas();
+                case 13 -> gerarIndiceMapeado();
+                case 14 -> mostrarProduto(localizarProdutoIndiceMapeado());
                 case 0 -> System.out.println("Saindo...");
                 default -> System.out.println("Opção inválida!");
             }
@@ -0,0 +1,559 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Árvore B+ que implementa {@link IMapeamento}.
+ *
+ * Cada página guarda até {@code ordem - 1} chaves num vetor contíguo, pesquisado por busca binária; as páginas internas
+ * guardam apenas chaves separadoras e referências às páginas filhas, e os itens ficam nas folhas, encadeadas em ordem
+ * crescente de chave. Com ordens na casa das dezenas, a altura da árvore é uma fração da altura de uma {@link ABB}
+ * ou {@link AVL} com os mesmos itens, e as comparações de cada nível acontecem sobre chaves vizinhas na memória.
+ */
+public class ArvoreB<K, V> implements IMapeamento<K, V> {
+
+    /** Quantidade padrão de filhos de cada página interna. */
+    public static final int ORDEM_PADRAO = 64;
+
+    /** Com ordem mínima 3, cada página interna não raiz tem ao menos 2 filhos; 2^64 itens não cabem em um int. */
+    private static final int CAMINHO_MAXIMO = 64;
+
+    /**
+     * Página da árvore. Os vetores têm uma posição a mais que a capacidade, para acomodar temporariamente
+     * o excesso de uma inserção antes da divisão da página.
+     */
+    private static final class Pagina {
+        final Object[] chaves;
+        /** Itens, nas folhas. */
+        final Object[] valores;
+        /** Páginas filhas, nas páginas internas: o filho i contém as chaves c com chaves[i - 1] <= c < chaves[i]. */
+        final Pagina[] filhos;
+        /** Próxima folha, em ordem crescente de chave. */
+        Pagina proxima;
+        int quantidade;
+
+        Pagina(int maximoChaves, boolean folha) {
+            chaves = new Object[maximoChaves + 1];
+            valores = folha ? new Object[maximoChaves + 1] : null;
+            filhos = folha ? null : new Pagina[maximoChaves + 2];
+        }
+
+        boolean folha() {
+            return filhos == null;
+        }
+    }
+
+    private final Comparator<K> comparador;
+    private final int ordem;
+    private final int maximoChaves;
+    private final int minimoChaves;
+    private Pagina raiz;
+    /** Páginas visitadas da raiz até a folha e o índice do filho seguido em cada uma. */
+    private final Pagina[] caminho;
+    private final int[] indicesCaminho;
+    private int tamanho;
+    private long comparacoes;
+    private long comparacoesOperacao; // comparações da operação em andamento, zeradas no início de cada uma.
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("ArvoreB") : null;
+
+    /**
+     * Construtor da classe.
+     * Cria uma árvore vazia de ordem {@link #ORDEM_PADRAO}, com o comparador padrão de ordem natural.
+     */
+    @SuppressWarnings("unchecked")
+    public ArvoreB() {
+        this(ORDEM_PADRAO, (Comparator<K>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Construtor da classe.
+     * Cria uma árvore vazia com a ordem informada e o comparador padrão de ordem natural.
+     * @param ordem quantidade máxima de filhos de cada página interna (ao menos 3).
+     */
+    @SuppressWarnings("unchecked")
+    public ArvoreB(int ordem) {
+        this(ordem, (Comparator<K>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Construtor da classe.
+     * @param ordem quantidade máxima de filhos de cada página interna (ao menos 3).
+     * @param comparador o comparador a ser utilizado para organizar as chaves da árvore.
+     */
+    public ArvoreB(int ordem, Comparator<K> comparador) {
+        if (ordem < 3) {
+            throw new IllegalArgumentException("A ordem da árvore B deve ser ao menos 3.");
+        }
+        this.ordem = ordem;
+        this.comparador = comparador;
+        maximoChaves = ordem - 1;
+        minimoChaves = maximoChaves / 2;
+        raiz = new Pagina(maximoChaves, true);
+        caminho = new Pagina[CAMINHO_MAXIMO];
+        indicesCaminho = new int[CAMINHO_MAXIMO];
+        tamanho = 0;
+    }
+
+    public Boolean vazia() {
+        return (tamanho == 0);
+    }
+
+    public int getOrdem() {
+        return ordem;
+    }
+
+    /**
+     * Busca binária da chave entre as chaves da página, contabilizando as comparações na operação em andamento.
+     * @return a posição da chave, se presente; caso contrário, {@code -(ponto de inserção) - 1}.
+     */
+    @SuppressWarnings("unchecked")
+    private int buscar(Pagina pagina, K chave) {
+        int esquerda = 0;
+        int direita = pagina.quantidade - 1;
+
+        while (esquerda <= direita) {
+            int meio = (esquerda + direita) >>> 1;
+            comparacoesOperacao++;
+            int comparacao = comparador.compare(chave, (K) pagina.chaves[meio]);
+
+            if (comparacao == 0)
+                return meio;
+            else if (comparacao < 0)
+                direita = meio - 1;
+            else
+                esquerda = meio + 1;
+        }
+        return -(esquerda + 1);
+    }
+
+    /** Índice do filho de uma página interna que pode conter a chave. */
+    private int indiceFilho(Pagina pagina, K chave) {
+        int posicao = buscar(pagina, chave);
+        return (posicao >= 0) ? posicao + 1 : -(posicao + 1);
+    }
+
+    /**
+     * Desce da raiz até a folha que pode conter a chave, empilhando as páginas internas visitadas.
+     * @return a profundidade da folha, que fica em {@code caminho[profundidade]}.
+     */
+    private int descer(K chave) {
+        int profundidade = 0;
+        Pagina atual = raiz;
+
+        while (!atual.folha()) {
+            int indice = indiceFilho(atual, chave);
+            caminho[profundidade] = atual;
+            indicesCaminho[profundidade] = indice;
+            profundidade++;
+            atual = atual.filhos[indice];
+        }
+        caminho[profundidade] = atual;
+        return profundidade;
+    }
+
+    private void limparCaminho(int profundidade) {
+        for (int i = 0; i <= profundidade; i++) {
+            caminho[i] = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V pesquisar(K chave) {
+        comparacoesOperacao = 0;
+        inicio = System.nanoTime();
+
+        try {
+            Pagina atual = raiz;
+            while (!atual.folha()) {
+                atual = atual.filhos[indiceFilho(atual, chave)];
+            }
+
+            int posicao = buscar(atual, chave);
+            comparacoes = comparacoesOperacao;
+            termino = System.nanoTime();
+            if (posicao < 0)
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            return (V) atual.valores[posicao];
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoesOperacao, inicio, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            int profundidade = descer(chave);
+            Pagina folha = caminho[profundidade];
+            int posicao = buscar(folha, chave);
+
+            if (posicao >= 0) {
+                folha.valores[posicao] = item;
+                limparCaminho(profundidade);
+                return tamanho;
+            }
+
+            posicao = -(posicao + 1);
+            deslocar(folha.chaves, posicao, folha.quantidade, 1);
+            deslocar(folha.valores, posicao, folha.quantidade, 1);
+            folha.chaves[posicao] = chave;
+            folha.valores[posicao] = item;
+            folha.quantidade++;
+            tamanho++;
+
+            dividirCaminho(profundidade);
+            limparCaminho(profundidade);
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    /**
+     * Divide, de baixo para cima, as páginas do caminho que excederam a capacidade, inserindo no pai
+     * a chave separadora e a nova página da direita. Se a raiz for dividida, a árvore cresce um nível.
+     */
+    private void dividirCaminho(int profundidade) {
+        for (int i = profundidade; i >= 0 && caminho[i].quantidade > maximoChaves; i--) {
+            Pagina pagina = caminho[i];
+            Pagina direita = new Pagina(maximoChaves, pagina.folha());
+            Object separadora;
+
+            if (pagina.folha()) {
+                int meio = pagina.quantidade / 2;
+                direita.quantidade = pagina.quantidade - meio;
+                System.arraycopy(pagina.chaves, meio, direita.chaves, 0, direita.quantidade);
+                System.arraycopy(pagina.valores, meio, direita.valores, 0, direita.quantidade);
+                limpar(pagina.chaves, meio, pagina.quantidade);
+                limpar(pagina.valores, meio, pagina.quantidade);
+                pagina.quantidade = meio;
+
+                direita.proxima = pagina.proxima;
+                pagina.proxima = direita;
+                separadora = direita.chaves[0];
+            } else {
+                // A chave do meio sobe para o pai e não permanece em nenhuma das metades
+                int meio = pagina.quantidade / 2;
+                separadora = pagina.chaves[meio];
+                direita.quantidade = pagina.quantidade - meio - 1;
+                System.arraycopy(pagina.chaves, meio + 1, direita.chaves, 0, direita.quantidade);
+                System.arraycopy(pagina.filhos, meio + 1, direita.filhos, 0, direita.quantidade + 1);
+                limpar(pagina.chaves, meio, pagina.quantidade);
+                limpar(pagina.filhos, meio + 1, pagina.quantidade + 1);
+                pagina.quantidade = meio;
+            }
+
+            if (i == 0) {
+                Pagina novaRaiz = new Pagina(maximoChaves, false);
+                novaRaiz.chaves[0] = separadora;
+                novaRaiz.filhos[0] = pagina;
+                novaRaiz.filhos[1] = direita;
+                novaRaiz.quantidade = 1;
+                raiz = novaRaiz;
+            } else {
+                Pagina pai = caminho[i - 1];
+                int indice = indicesCaminho[i - 1];
+                deslocar(pai.chaves, indice, pai.quantidade, 1);
+                deslocar(pai.filhos, indice + 1, pai.quantidade + 1, 1);
+                pai.chaves[indice] = separadora;
+                pai.filhos[indice + 1] = direita;
+                pai.quantidade++;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remover(K chave) {
+        comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            int profundidade = descer(chave);
+            Pagina folha = caminho[profundidade];
+            int posicao = buscar(folha, chave);
+
+            if (posicao < 0) {
+                limparCaminho(profundidade);
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            }
+
+            V itemRemovido = (V) folha.valores[posicao];
+            deslocar(folha.chaves, posicao + 1, folha.quantidade, -1);
+            deslocar(folha.valores, posicao + 1, folha.quantidade, -1);
+            folha.quantidade--;
+            folha.chaves[folha.quantidade] = null;
+            folha.valores[folha.quantidade] = null;
+            tamanho--;
+
+            rebalancearCaminho(profundidade);
+            limparCaminho(profundidade);
+            return itemRemovido;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    /**
+     * Corrige, de baixo para cima, as páginas do caminho que ficaram abaixo da ocupação mínima: cada uma toma
+     * emprestada uma chave de uma irmã com sobra ou, se nenhuma tiver, é fundida a uma irmã, retirando do pai
+     * uma chave separadora. Se a raiz interna ficar sem chaves, seu único filho passa a ser a raiz.
+     */
+    private void rebalancearCaminho(int profundidade) {
+        for (int i = profundidade; i > 0 && caminho[i].quantidade < minimoChaves; i--) {
+            Pagina pagina = caminho[i];
+            Pagina pai = caminho[i - 1];
+            int indice = indicesCaminho[i - 1];
+            Pagina esquerda = (indice > 0) ? pai.filhos[indice - 1] : null;
+            Pagina direita = (indice < pai.quantidade) ? pai.filhos[indice + 1] : null;
+
+            if (esquerda != null && esquerda.quantidade > minimoChaves) {
+                emprestarDaEsquerda(pai, indice, esquerda, pagina);
+            } else if (direita != null && direita.quantidade > minimoChaves) {
+                emprestarDaDireita(pai, indice, pagina, direita);
+            } else if (esquerda != null) {
+                fundir(pai, indice - 1, esquerda, pagina);
+            } else {
+                fundir(pai, indice, pagina, direita);
+            }
+        }
+
+        if (!raiz.folha() && raiz.quantidade == 0) {
+            raiz = raiz.filhos[0];
+        }
+    }
+
+    private void emprestarDaEsquerda(Pagina pai, int indice, Pagina esquerda, Pagina pagina) {
+        int ultima = esquerda.quantidade - 1;
+
+        deslocar(pagina.chaves, 0, pagina.quantidade, 1);
+        if (pagina.folha()) {
+            deslocar(pagina.valores, 0, pagina.quantidade, 1);
+            pagina.chaves[0] = esquerda.chaves[ultima];
+            pagina.valores[0] = esquerda.valores[ultima];
+            esquerda.valores[ultima] = null;
+            pai.chaves[indice - 1] = pagina.chaves[0];
+        } else {
+            deslocar(pagina.filhos, 0, pagina.quantidade + 1, 1);
+            pagina.chaves[0] = pai.chaves[indice - 1];
+            pagina.filhos[0] = esquerda.filhos[ultima + 1];
+            esquerda.filhos[ultima + 1] = null;
+            pai.chaves[indice - 1] = esquerda.chaves[ultima];
+        }
+        esquerda.chaves[ultima] = null;
+        esquerda.quantidade--;
+        pagina.quantidade++;
+    }
+
+    private void emprestarDaDireita(Pagina pai, int indice, Pagina pagina, Pagina direita) {
+        if (pagina.folha()) {
+            pagina.chaves[pagina.quantidade] = direita.chaves[0];
+            pagina.valores[pagina.quantidade] = direita.valores[0];
+            deslocar(direita.valores, 1, direita.quantidade, -1);
+            direita.valores[direita.quantidade - 1] = null;
+            deslocar(direita.chaves, 1, direita.quantidade, -1);
+            pai.chaves[indice] = direita.chaves[0];
+        } else {
+            pagina.chaves[pagina.quantidade] = pai.chaves[indice];
+            pagina.filhos[pagina.quantidade + 1] = direita.filhos[0];
+            pai.chaves[indice] = direita.chaves[0];
+            deslocar(direita.chaves, 1, direita.quantidade, -1);
+            deslocar(direita.filhos, 1, direita.quantidade + 1, -1);
+            direita.filhos[direita.quantidade] = null;
+        }
+        direita.chaves[direita.quantidade - 1] = null;
+        direita.quantidade--;
+        pagina.quantidade++;
+    }
+
+    /**
+     * Funde a página da direita na da esquerda e retira do pai a chave separadora entre elas.
+     * @param separadora posição, no pai, da chave que separa as duas páginas.
+     */
+    private void fundir(Pagina pai, int separadora, Pagina esquerda, Pagina direita) {
+        int destino = esquerda.quantidade;
+
+        if (esquerda.folha()) {
+            System.arraycopy(direita.chaves, 0, esquerda.chaves, destino, direita.quantidade);
+            System.arraycopy(direita.valores, 0, esquerda.valores, destino, direita.quantidade);
+            esquerda.quantidade += direita.quantidade;
+            esquerda.proxima = direita.proxima;
+        } else {
+            // Nas páginas internas, a separadora desce do pai para entre as chaves das duas páginas
+            esquerda.chaves[destino] = pai.chaves[separadora];
+            System.arraycopy(direita.chaves, 0, esquerda.chaves, destino + 1, direita.quantidade);
+            System.arraycopy(direita.filhos, 0, esquerda.filhos, destino + 1, direita.quantidade + 1);
+            esquerda.quantidade += direita.quantidade + 1;
+        }
+
+        deslocar(pai.chaves, separadora + 1, pai.quantidade, -1);
+        deslocar(pai.filhos, separadora + 2, pai.quantidade + 1, -1);
+        pai.chaves[pai.quantidade - 1] = null;
+        pai.filhos[pai.quantidade] = null;
+        pai.quantidade--;
+    }
+
+    /** Desloca as posições [de, ate) do vetor em {@code passo} posições (1 para a direita, -1 para a esquerda). */
+    private static void deslocar(Object[] vetor, int de, int ate, int passo) {
+        if (de < ate) {
+            System.arraycopy(vetor, de, vetor, de + passo, ate - de);
+        }
+    }
+
+    private static void limpar(Object[] vetor, int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            vetor[i] = null;
+        }
+    }
+
+    /**
+     * Retorna a altura da árvore: a quantidade de páginas de qualquer caminho da raiz até uma folha.
+     */
+    public int altura() {
+        int altura = 1;
+
+        for (Pagina atual = raiz; !atual.folha(); atual = atual.filhos[0]) {
+            altura++;
+        }
+        return altura;
+    }
+
+    private Pagina primeiraFolha() {
+        Pagina atual = raiz;
+
+        while (!atual.folha()) {
+            atual = atual.filhos[0];
+        }
+        return atual;
+    }
+
+    /**
+     * Retorna um iterador das entradas da árvore, em ordem crescente de chave, que percorre o encadeamento das folhas.
+     * A árvore não deve ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return new Iterator<Entrada<K, V>>() {
+
+            private Pagina folha = primeiraFolha();
+            private int posicao = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (folha != null && posicao >= folha.quantidade) {
+                    folha = folha.proxima;
+                    posicao = 0;
+                }
+                return folha != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Entrada<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entrada<K, V> entrada = new Entrada<>((K) folha.chaves[posicao], (V) folha.valores[posicao]);
+                posicao++;
+                return entrada;
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        return Spliterators.spliterator(iterator(), tamanho, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+
+    @Override
+    public String percorrer() {
+        return caminhamentoEmOrdem();
+    }
+
+    public String caminhamentoEmOrdem() {
+        StringBuilder resultado = new StringBuilder();
+        try {
+            caminhamentoEmOrdem(resultado);
+        } catch (IOException excecao) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(excecao);
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Escreve cada item, em ordem crescente de chave e seguido de uma quebra de linha, diretamente no destino informado.
+     * @param destino destino dos itens.
+     * @throws IOException em caso de erro de escrita no destino.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+        for (Pagina folha = primeiraFolha(); folha != null; folha = folha.proxima) {
+            for (int i = 0; i < folha.quantidade; i++) {
+                destino.append(folha.valores[i].toString()).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Retorna as estatísticas da árvore. Todos os itens ficam nas folhas, que estão no mesmo nível; a profundidade de
+     * cada item é, portanto, a altura da árvore, contada em páginas. As folhas são percorridas pelo encadeamento.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorArvore coletor = new EstatisticasEstrutura.ColetorArvore();
+        int profundidade = 1;
+        Pagina folha = raiz;
+
+        while (!folha.folha()) {
+            folha = folha.filhos[0];
+            profundidade++;
+        }
+        for (; folha != null; folha = folha.proxima) {
+            if (folha.quantidade > 0)
+                coletor.registrar(profundidade, folha.quantidade);
+        }
+        // Altura mínima: folhas cheias e páginas internas com o máximo de filhos.
+        int alturaMinima = (tamanho == 0) ? 0 : 1;
+        for (long capacidadeNivel = maximoChaves; capacidadeNivel < tamanho; capacidadeNivel *= ordem) {
+            alturaMinima++;
+        }
+        return coletor.concluir("ArvoreB (ordem " + ordem + ")", tamanho, alturaMinima);
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+}
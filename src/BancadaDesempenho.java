@@ -0,0 +1,332 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bancada de medição de desempenho das implementações de {@link IMapeamento}.
+ *
+ * Para cada estrutura, cenário de chaves e operação ({@code inserir}, {@code pesquisar} com acerto e com falha,
+ * {@code remover} e percurso completo), executa repetições de aquecimento, para que o JIT compile os caminhos medidos,
+ * seguidas de repetições medidas. Cada repetição processa todas as chaves do cenário; o relatório traz a média e o
+ * desvio padrão do tempo por operação e os bytes alocados por operação, obtidos do contador de alocação da thread.
+ * A preparação das estruturas (por exemplo, preencher a estrutura antes de medir remoções) fica fora da medição.
+ *
+ * Cenários: os ids de {@code produtos.txt}, o hash dos nomes de {@code fornecedores.txt} e chaves sintéticas em ordem
+ * crescente, decrescente e aleatória, além de um cenário de consultas com popularidade de Zipf.
+ *
+ * Todas as estruturas medidas acumulam {@link MetricasOperacoes} em cada operação, de modo que a comparação entre elas
+ * é justa; para medir as estruturas sem esse custo, execute com {@code -Daeds.metricas=false}.
+ *
+ * Uso: {@code java BancadaDesempenho [tamanho dos cenários sintéticos] [trecho do nome das estruturas]}.
+ */
+public class BancadaDesempenho {
+
+    private static final int TAMANHO_PADRAO = 10_000;
+    private static final int AQUECIMENTOS = 3;
+    private static final int MEDICOES = 5;
+    private static final double EXPOENTE_ZIPF = 1.0;
+    private static final long SEMENTE = 42;
+    private static final Object VALOR = new Object();
+
+    /** Acumula os resultados das operações medidas, para que o JIT não descarte o trabalho como código morto. */
+    private static long sumidouro;
+
+    private static final class Cenario {
+        final String nome;
+        /** Chaves na ordem de inserção. */
+        final Integer[] chaves;
+        /** Chaves pesquisadas nas medições de acerto. */
+        final Integer[] consultas;
+        /** Todas as chaves, na ordem de remoção. */
+        final Integer[] ordemRemocao;
+        /** Chaves que não estão no cenário. */
+        final Integer[] ausentes;
+
+        Cenario(String nome, int[] chaves, int[] consultas, int[] ordemRemocao, int[] ausentes) {
+            this.nome = nome;
+            this.chaves = encaixotar(chaves);
+            this.consultas = encaixotar(consultas);
+            this.ordemRemocao = encaixotar(ordemRemocao);
+            this.ausentes = encaixotar(ausentes);
+        }
+
+        /** As chaves são convertidas antes das medições, para que a conversão não seja medida junto com as estruturas. */
+        private static Integer[] encaixotar(int[] valores) {
+            Integer[] objetos = new Integer[valores.length];
+            for (int i = 0; i < valores.length; i++) {
+                objetos[i] = valores[i];
+            }
+            return objetos;
+        }
+    }
+
+    private enum Operacao {
+        INSERIR("inserir"),
+        PESQUISAR_ACERTO("pesquisar (acerto)"),
+        PESQUISAR_FALHA("pesquisar (falha)"),
+        REMOVER("remover"),
+        PERCORRER("percorrer");
+
+        final String descricao;
+
+        Operacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        /** Operações que modificam a estrutura precisam de uma estrutura nova a cada repetição. */
+        boolean modifica() {
+            return this == INSERIR || this == REMOVER;
+        }
+
+        IMapeamento<Integer, Object> preparar(Supplier<IMapeamento<Integer, Object>> fabrica, Cenario cenario) {
+            IMapeamento<Integer, Object> estrutura = fabrica.get();
+            if (this != INSERIR) {
+                for (Integer chave : cenario.chaves) {
+                    estrutura.inserir(chave, VALOR);
+                }
+            }
+            return estrutura;
+        }
+
+        int quantidade(Cenario cenario) {
+            return switch (this) {
+                case PESQUISAR_ACERTO -> cenario.consultas.length;
+                case PESQUISAR_FALHA -> cenario.ausentes.length;
+                default -> cenario.chaves.length;
+            };
+        }
+
+        long executar(IMapeamento<Integer, Object> estrutura, Cenario cenario) {
+            long resultado = 0;
+
+            switch (this) {
+                case INSERIR -> {
+                    for (Integer chave : cenario.chaves) {
+                        resultado += estrutura.inserir(chave, VALOR);
+                    }
+                }
+                case PESQUISAR_ACERTO -> {
+                    for (Integer chave : cenario.consultas) {
+                        resultado += (estrutura.pesquisar(chave) == VALOR) ? 1 : 0;
+                    }
+                }
+                case PESQUISAR_FALHA -> {
+                    for (Integer chave : cenario.ausentes) {
+                        try {
+                            resultado += (estrutura.pesquisar(chave) == null) ? 1 : 0;
+                        } catch (NoSuchElementException excecao) {
+                            resultado++;
+                        }
+                    }
+                }
+                case REMOVER -> {
+                    for (Integer chave : cenario.ordemRemocao) {
+                        resultado += (estrutura.remover(chave) == VALOR) ? 1 : 0;
+                    }
+                }
+                case PERCORRER -> {
+                    for (Entrada<Integer, Object> entrada : estrutura) {
+                        resultado += entrada.getChave();
+                    }
+                }
+            }
+            return resultado;
+        }
+    }
+
+    private static Map<String, Supplier<IMapeamento<Integer, Object>>> estruturas() {
+        Map<String, Supplier<IMapeamento<Integer, Object>>> estruturas = new LinkedHashMap<>();
+
+        estruturas.put("ABB", ABB::new);
+        estruturas.put("AVL", AVL::new);
+        estruturas.put("AVLInt", AVLInt::new);
+        estruturas.put("ArvoreB", ArvoreB::new);
+        estruturas.put("TabelaHash", TabelaHash::new);
+        estruturas.put("TabelaHashInt", TabelaHashInt::new);
+        estruturas.put("TabelaHashConcorrente", TabelaHashConcorrente::new);
+        estruturas.put("AVLConcorrente", AVLConcorrente::new);
+        estruturas.put("ConjuntoAdaptativo", ConjuntoAdaptativo::new);
+        return estruturas;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int tamanho = (args.length > 0) ? Integer.parseInt(args[0]) : TAMANHO_PADRAO;
+        String filtro = (args.length > 1) ? args[1] : "";
+        Random aleatorio = new Random(SEMENTE);
+
+        List<Cenario> cenarios = List.of(
+            cenarioProdutos(aleatorio),
+            cenarioFornecedores(aleatorio),
+            cenarioSintetico("crescente", tamanho, 1, aleatorio),
+            cenarioSintetico("decrescente", tamanho, -1, aleatorio),
+            cenarioSintetico("aleatorio", tamanho, 0, aleatorio),
+            cenarioZipf(tamanho, aleatorio));
+
+        System.out.printf("%-22s %-14s %-20s %14s %12s %12s%n",
+            "estrutura", "cenario", "operacao", "ns/op", "desvio", "bytes/op");
+
+        for (Map.Entry<String, Supplier<IMapeamento<Integer, Object>>> estrutura : estruturas().entrySet()) {
+            if (!estrutura.getKey().contains(filtro)) {
+                continue;
+            }
+            for (Cenario cenario : cenarios) {
+                for (Operacao operacao : Operacao.values()) {
+                    medir(estrutura.getKey(), estrutura.getValue(), cenario, operacao);
+                }
+            }
+        }
+        // Impede que o cálculo dos resultados seja eliminado; o valor em si não tem significado.
+        System.out.println("(verificação: " + Long.toHexString(sumidouro) + ")");
+    }
+
+    private static void medir(String nome, Supplier<IMapeamento<Integer, Object>> fabrica,
+                              Cenario cenario, Operacao operacao) {
+        double[] nanossegundosPorOperacao = new double[MEDICOES];
+        long bytesAlocados = 0;
+        int quantidade = operacao.quantidade(cenario);
+        IMapeamento<Integer, Object> reutilizada = operacao.modifica() ? null : operacao.preparar(fabrica, cenario);
+
+        for (int repeticao = 0; repeticao < AQUECIMENTOS + MEDICOES; repeticao++) {
+            IMapeamento<Integer, Object> estrutura = operacao.modifica() ? operacao.preparar(fabrica, cenario) : reutilizada;
+
+            long alocadosAntes = bytesAlocadosPelaThread();
+            long inicio = System.nanoTime();
+            sumidouro += operacao.executar(estrutura, cenario);
+            long termino = System.nanoTime();
+            long alocadosDepois = bytesAlocadosPelaThread();
+
+            if (repeticao >= AQUECIMENTOS) {
+                nanossegundosPorOperacao[repeticao - AQUECIMENTOS] = (termino - inicio) / (double) quantidade;
+                bytesAlocados += alocadosDepois - alocadosAntes;
+            }
+        }
+
+        double media = Arrays.stream(nanossegundosPorOperacao).average().orElse(0);
+        double variancia = Arrays.stream(nanossegundosPorOperacao).map(t -> (t - media) * (t - media)).sum() / MEDICOES;
+        double bytesPorOperacao = (bytesAlocadosPelaThread() < 0) ? -1 : bytesAlocados / (double) MEDICOES / quantidade;
+
+        System.out.printf("%-22s %-14s %-20s %14.1f %12.1f %12.1f%n",
+            nome, cenario.nome, operacao.descricao, media, Math.sqrt(variancia), bytesPorOperacao);
+    }
+
+    /**
+     * Retorna a quantidade de bytes já alocados pela thread atual, ou -1 se a JVM não oferecer essa medição.
+     */
+    private static long bytesAlocadosPelaThread() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static Cenario cenarioProdutos(Random aleatorio) throws IOException {
+        Produto[] produtos = LeitorProdutos.lerEmParalelo("produtos.txt");
+        int[] chaves = new int[produtos.length];
+
+        for (int i = 0; i < produtos.length; i++) {
+            chaves[i] = produtos[i].idProduto;
+        }
+        return cenarioComChaves("produtos", chaves, aleatorio);
+    }
+
+    private static Cenario cenarioFornecedores(Random aleatorio) throws IOException {
+        List<String> linhas = Files.readAllLines(new File("fornecedores.txt").toPath(), StandardCharsets.UTF_8);
+        Set<Integer> distintas = new LinkedHashSet<>();
+
+        // A primeira linha traz a quantidade de fornecedores
+        for (String nome : linhas.subList(1, linhas.size())) {
+            distintas.add(nome.trim().hashCode());
+        }
+        return cenarioComChaves("fornecedores", distintas.stream().mapToInt(Integer::intValue).toArray(), aleatorio);
+    }
+
+    /**
+     * Cenário com as chaves pares 0, 2, ..., 2(n - 1), em ordem crescente (1), decrescente (-1) ou aleatória (0);
+     * as chaves ímpares do mesmo intervalo são usadas nas pesquisas com falha.
+     */
+    private static Cenario cenarioSintetico(String nome, int tamanho, int ordem, Random aleatorio) {
+        int[] chaves = new int[tamanho];
+        int[] ausentes = new int[tamanho];
+
+        for (int i = 0; i < tamanho; i++) {
+            chaves[i] = 2 * ((ordem >= 0) ? i : tamanho - 1 - i);
+            ausentes[i] = 2 * i + 1;
+        }
+        if (ordem == 0) {
+            embaralhar(chaves, aleatorio);
+        }
+        embaralhar(ausentes, aleatorio);
+        return new Cenario(nome, chaves, embaralhada(chaves, aleatorio), embaralhada(chaves, aleatorio), ausentes);
+    }
+
+    /**
+     * Cenário de chaves inseridas em ordem aleatória e consultadas segundo uma distribuição de Zipf:
+     * a i-ésima chave mais popular é consultada com frequência proporcional a 1 / i^{@value #EXPOENTE_ZIPF}.
+     */
+    private static Cenario cenarioZipf(int tamanho, Random aleatorio) {
+        Cenario base = cenarioSintetico("zipf", tamanho, 0, aleatorio);
+        int[] chaves = Arrays.stream(base.chaves).mapToInt(Integer::intValue).toArray();
+        int[] popularidade = embaralhada(chaves, aleatorio);
+        double[] acumulada = new double[tamanho];
+        double soma = 0;
+
+        for (int i = 0; i < tamanho; i++) {
+            soma += 1.0 / Math.pow(i + 1, EXPOENTE_ZIPF);
+            acumulada[i] = soma;
+        }
+
+        int[] consultas = new int[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble() * soma);
+            consultas[i] = popularidade[Math.min(tamanho - 1, (posicao >= 0) ? posicao : -(posicao + 1))];
+        }
+
+        int[] ausentes = Arrays.stream(base.ausentes).mapToInt(Integer::intValue).toArray();
+        return new Cenario("zipf", chaves, consultas, embaralhada(chaves, aleatorio), ausentes);
+    }
+
+    private static Cenario cenarioComChaves(String nome, int[] chaves, Random aleatorio) {
+        Set<Integer> presentes = new HashSet<>();
+        for (int chave : chaves) {
+            presentes.add(chave);
+        }
+
+        int[] ausentes = new int[chaves.length];
+        for (int i = 0; i < ausentes.length; i++) {
+            int candidata;
+            do {
+                candidata = aleatorio.nextInt();
+            } while (presentes.contains(candidata));
+            ausentes[i] = candidata;
+        }
+        return new Cenario(nome, chaves, embaralhada(chaves, aleatorio), embaralhada(chaves, aleatorio), ausentes);
+    }
+
+    private static int[] embaralhada(int[] valores, Random aleatorio) {
+        int[] copia = valores.clone();
+        embaralhar(copia, aleatorio);
+        return copia;
+    }
+
+    private static void embaralhar(int[] valores, Random aleatorio) {
+        for (int i = valores.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int temporario = valores[i];
+            valores[i] = valores[j];
+            valores[j] = temporario;
+        }
+    }
+}
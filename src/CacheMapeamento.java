@@ -0,0 +1,453 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+
+/**
+ * Cache de pesquisas de capacidade limitada, posicionado à frente de qualquer {@link IMapeamento}.
+ *
+ * As pesquisas bem-sucedidas são guardadas no cache; as seguintes para a mesma chave são respondidas sem percorrer
+ * a estrutura de origem. As escritas ({@link #inserir(Object, Object)} e {@link #remover(Object)}) são repassadas
+ * à origem e invalidam a chave no cache, que nunca devolve um valor desatualizado. Todas as alterações da origem
+ * devem passar pelo cache. As demais operações (tamanho, percurso, iteração e estatísticas) são delegadas à origem.
+ *
+ * Há duas políticas de descarte:
+ * <ul>
+ * <li>{@link Politica#LRU_SEGMENTADO}: as chaves novas entram num segmento experimental; um segundo acesso as promove
+ * ao segmento protegido (80% da capacidade), de onde só saem, rebaixadas ao experimental, quando ele transborda.
+ * Chaves acessadas uma única vez, portanto, não expulsam as populares.</li>
+ * <li>{@link Politica#W_TINY_LFU}: as chaves novas entram numa pequena janela LRU (1% da capacidade). Quem sai da janela
+ * só é admitido no LRU segmentado principal se tiver sido acessado com mais frequência que a vítima que ocuparia seu
+ * lugar; as frequências são estimadas por um {@link SketchFrequencia}, que também retém o histórico de chaves que não
+ * estão no cache.</li>
+ * </ul>
+ *
+ * Os acertos e as falhas são contabilizados pelo cache; {@link #getComparacoes()} e {@link #getTempo()} medem a última
+ * pesquisa como um todo (nenhuma comparação na estrutura de origem em caso de acerto), e {@link #getMetricas()} acumula
+ * as pesquisas feitas através do cache. A classe não é segura para acesso concorrente.
+ * @param <K> tipo das chaves.
+ * @param <V> tipo dos valores.
+ */
+public class CacheMapeamento<K, V> implements IMapeamento<K, V> {
+
+    public enum Politica {
+        LRU_SEGMENTADO,
+        W_TINY_LFU
+    }
+
+    private static final byte JANELA = 0;
+    private static final byte EXPERIMENTAL = 1;
+    private static final byte PROTEGIDO = 2;
+
+    /** Item em cache, encadeado na lista do seu segmento. */
+    private static final class ItemCache<K, V> {
+        K chave;
+        V valor;
+        byte segmento;
+        ItemCache<K, V> anterior;
+        ItemCache<K, V> proximo;
+    }
+
+    /**
+     * Lista circular duplamente encadeada com sentinela: o primeiro item é o menos recentemente usado
+     * e o último, o mais recente.
+     */
+    private static final class ListaRecencia<K, V> {
+        private final ItemCache<K, V> sentinela = new ItemCache<>();
+        private int tamanho;
+
+        ListaRecencia() {
+            sentinela.anterior = sentinela;
+            sentinela.proximo = sentinela;
+        }
+
+        void adicionarNoFim(ItemCache<K, V> item) {
+            item.anterior = sentinela.anterior;
+            item.proximo = sentinela;
+            sentinela.anterior.proximo = item;
+            sentinela.anterior = item;
+            tamanho++;
+        }
+
+        void retirar(ItemCache<K, V> item) {
+            item.anterior.proximo = item.proximo;
+            item.proximo.anterior = item.anterior;
+            item.anterior = null;
+            item.proximo = null;
+            tamanho--;
+        }
+
+        ItemCache<K, V> primeiro() {
+            return (tamanho == 0) ? null : sentinela.proximo;
+        }
+
+        void limpar() {
+            sentinela.anterior = sentinela;
+            sentinela.proximo = sentinela;
+            tamanho = 0;
+        }
+    }
+
+    private final IMapeamento<K, V> origem;
+    private final Politica politica;
+    private final int capacidade;
+    private final int capacidadeJanela;
+    private final int capacidadeProtegido;
+    /**
+     * Localização dos itens em cache. Usa-se o {@link HashMap} da biblioteca, e não uma estrutura do projeto,
+     * para que o índice do cache não interfira na instrumentação das estruturas medidas.
+     */
+    private final Map<K, ItemCache<K, V>> itens;
+    private final ListaRecencia<K, V> janela = new ListaRecencia<>();
+    private final ListaRecencia<K, V> experimental = new ListaRecencia<>();
+    private final ListaRecencia<K, V> protegido = new ListaRecencia<>();
+    private final SketchFrequencia sketch;
+
+    private long acertos;
+    private long falhas;
+    private long comparacoes;
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("CacheMapeamento") : null;
+
+    /**
+     * Construtor da classe.
+     * @param origem a estrutura cujas pesquisas serão mantidas em cache.
+     * @param capacidade quantidade máxima de itens no cache.
+     * @param politica a política de descarte.
+     * @throws IllegalArgumentException caso a capacidade seja menor que 2.
+     */
+    public CacheMapeamento(IMapeamento<K, V> origem, int capacidade, Politica politica) {
+        if (capacidade < 2) {
+            throw new IllegalArgumentException("A capacidade do cache deve ser ao menos 2.");
+        }
+        this.origem = origem;
+        this.politica = politica;
+        this.capacidade = capacidade;
+        this.capacidadeJanela = (politica == Politica.W_TINY_LFU) ? Math.max(1, capacidade / 100) : 0;
+        this.capacidadeProtegido = (int) ((capacidade - capacidadeJanela) * 0.8);
+        this.itens = new HashMap<>(Math.min(capacidade, 1 << 16) * 4 / 3 + 1);
+        this.sketch = (politica == Politica.W_TINY_LFU) ? new SketchFrequencia(capacidade) : null;
+    }
+
+    public CacheMapeamento(IMapeamento<K, V> origem, int capacidade) {
+        this(origem, capacidade, Politica.W_TINY_LFU);
+    }
+
+    /**
+     * Pesquisa a chave no cache e, em caso de falha, na estrutura de origem, guardando o resultado encontrado.
+     * Chaves ausentes não são guardadas: o comportamento da origem (exceção ou {@code null}) é mantido.
+     * @param chave a chave procurada.
+     * @return o item associado à chave, conforme a estrutura de origem.
+     */
+    @Override
+    public V pesquisar(K chave) {
+        comparacoes = 0;
+        inicio = System.nanoTime();
+        try {
+            if (sketch != null)
+                sketch.incrementar(chave.hashCode());
+
+            ItemCache<K, V> item = itens.get(chave);
+            if (item != null) {
+                acertos++;
+                registrarAcesso(item);
+                termino = System.nanoTime();
+                return item.valor;
+            }
+
+            falhas++;
+            V valor;
+            try {
+                valor = origem.pesquisar(chave);
+            } finally {
+                comparacoes = origem.getComparacoes();
+            }
+            if (valor != null)
+                admitir(chave, valor);
+            termino = System.nanoTime();
+            return valor;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        invalidar(chave);
+        return origem.inserir(chave, item);
+    }
+
+    @Override
+    public V remover(K chave) {
+        invalidar(chave);
+        return origem.remover(chave);
+    }
+
+    /**
+     * Retira a chave do cache, caso esteja nele; a estrutura de origem não é alterada.
+     * @param chave a chave a ser invalidada.
+     */
+    public void invalidar(K chave) {
+        ItemCache<K, V> item = itens.remove(chave);
+        if (item != null)
+            listaDo(item.segmento).retirar(item);
+    }
+
+    /**
+     * Esvazia o cache, sem alterar a estrutura de origem. O histórico de frequências é mantido.
+     */
+    public void limpar() {
+        itens.clear();
+        janela.limpar();
+        experimental.limpar();
+        protegido.limpar();
+    }
+
+    private ListaRecencia<K, V> listaDo(byte segmento) {
+        switch (segmento) {
+            case JANELA:
+                return janela;
+            case EXPERIMENTAL:
+                return experimental;
+            default:
+                return protegido;
+        }
+    }
+
+    /**
+     * Atualiza a posição de um item acessado: na janela e no segmento protegido, ele passa a ser o mais recente;
+     * no experimental, é promovido ao protegido, rebaixando o menos recente do protegido se este transbordar.
+     */
+    private void registrarAcesso(ItemCache<K, V> item) {
+        ListaRecencia<K, V> lista = listaDo(item.segmento);
+        lista.retirar(item);
+
+        if (item.segmento == EXPERIMENTAL) {
+            item.segmento = PROTEGIDO;
+            protegido.adicionarNoFim(item);
+            if (protegido.tamanho > capacidadeProtegido) {
+                ItemCache<K, V> rebaixado = protegido.primeiro();
+                protegido.retirar(rebaixado);
+                rebaixado.segmento = EXPERIMENTAL;
+                experimental.adicionarNoFim(rebaixado);
+            }
+        } else {
+            lista.adicionarNoFim(item);
+        }
+    }
+
+    /**
+     * Guarda no cache um item obtido da origem, descartando outro item caso a capacidade seja excedida.
+     */
+    private void admitir(K chave, V valor) {
+        ItemCache<K, V> item = new ItemCache<>();
+        item.chave = chave;
+        item.valor = valor;
+        itens.put(chave, item);
+
+        if (politica == Politica.LRU_SEGMENTADO) {
+            item.segmento = EXPERIMENTAL;
+            experimental.adicionarNoFim(item);
+            if (itens.size() > capacidade)
+                descartar(vitimaPrincipal());
+            return;
+        }
+
+        item.segmento = JANELA;
+        janela.adicionarNoFim(item);
+        if (janela.tamanho <= capacidadeJanela)
+            return;
+
+        // O item mais antigo da janela disputa uma vaga no segmento principal com a vítima que daria lugar a ele.
+        ItemCache<K, V> candidato = janela.primeiro();
+        janela.retirar(candidato);
+
+        if (itens.size() > capacidade) {
+            ItemCache<K, V> vitima = vitimaPrincipal();
+            if (vitima == null || sketch.frequencia(candidato.chave.hashCode()) <= sketch.frequencia(vitima.chave.hashCode())) {
+                itens.remove(candidato.chave);
+                return;
+            }
+            descartar(vitima);
+        }
+        candidato.segmento = EXPERIMENTAL;
+        experimental.adicionarNoFim(candidato);
+    }
+
+    /**
+     * Retorna o item a ser descartado do segmento principal: o menos recente do experimental ou,
+     * se este estiver vazio, o menos recente do protegido.
+     */
+    private ItemCache<K, V> vitimaPrincipal() {
+        ItemCache<K, V> vitima = experimental.primeiro();
+        return (vitima != null) ? vitima : protegido.primeiro();
+    }
+
+    private void descartar(ItemCache<K, V> item) {
+        listaDo(item.segmento).retirar(item);
+        itens.remove(item.chave);
+    }
+
+    /**
+     * Retorna a estrutura cujas pesquisas são mantidas em cache.
+     */
+    public IMapeamento<K, V> getOrigem() {
+        return origem;
+    }
+
+    public Politica getPolitica() {
+        return politica;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Retorna a quantidade de itens atualmente em cache.
+     */
+    public int getOcupacao() {
+        return itens.size();
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Retorna a fração das pesquisas respondidas pelo cache, entre 0 e 1.
+     */
+    public double getTaxaAcertos() {
+        long total = acertos + falhas;
+        return (total == 0) ? 0 : acertos / (double) total;
+    }
+
+    /**
+     * Zera os contadores de acertos e falhas e as métricas cumulativas do cache.
+     */
+    public void zerarContadores() {
+        acertos = 0;
+        falhas = 0;
+        if (metricas != null)
+            metricas.zerar();
+    }
+
+    @Override
+    public int tamanho() {
+        return origem.tamanho();
+    }
+
+    @Override
+    public String percorrer() {
+        return origem.percorrer();
+    }
+
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return origem.iterator();
+    }
+
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        return origem.spliterator();
+    }
+
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        return origem.estatisticas();
+    }
+
+    /**
+     * Retorna a quantidade de comparações feitas pela estrutura de origem na última pesquisa: 0 em caso de acerto.
+     */
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache %s (%d/%d itens) - acertos: %d | falhas: %d | taxa de acertos: %.1f%%",
+            politica, itens.size(), capacidade, acertos, falhas, getTaxaAcertos() * 100);
+    }
+
+    /**
+     * Estimador de frequências de acesso (count-min sketch) com contadores de 4 bits e envelhecimento.
+     *
+     * Cada chave incrementa um contador em cada uma das 4 linhas, escolhido por uma função de espalhamento própria
+     * da linha; a frequência estimada é o menor dos 4 contadores, que só pode superestimar a real. Após uma amostra
+     * de 10 acessos por posição do cache, todos os contadores são divididos por 2, para que a popularidade antiga
+     * perca peso diante da recente.
+     */
+    static final class SketchFrequencia {
+
+        private static final int LINHAS = 4;
+        private static final int MAXIMO = 15;
+        private static final int[] SEMENTES = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+        /** Dois contadores de 4 bits por byte, linha após linha. */
+        private final byte[] contadores;
+        private final int mascara;
+        private final int tamanhoAmostra;
+        private int acessos;
+
+        SketchFrequencia(int capacidade) {
+            int largura = Integer.highestOneBit(Math.max(16, capacidade - 1)) << 1;
+            mascara = largura - 1;
+            contadores = new byte[LINHAS * largura / 2];
+            tamanhoAmostra = 10 * capacidade;
+        }
+
+        private int posicao(int linha, int hash) {
+            int h = hash * SEMENTES[linha];
+            h ^= h >>> 16;
+            return linha * (mascara + 1) + (h & mascara);
+        }
+
+        private int contador(int posicao) {
+            return (contadores[posicao >>> 1] >>> ((posicao & 1) << 2)) & 0xF;
+        }
+
+        void incrementar(int hash) {
+            for (int linha = 0; linha < LINHAS; linha++) {
+                int p = posicao(linha, hash);
+                if (contador(p) < MAXIMO)
+                    contadores[p >>> 1] += (byte) (1 << ((p & 1) << 2));
+            }
+            if (++acessos == tamanhoAmostra)
+                envelhecer();
+        }
+
+        int frequencia(int hash) {
+            int minima = MAXIMO;
+            for (int linha = 0; linha < LINHAS; linha++) {
+                minima = Math.min(minima, contador(posicao(linha, hash)));
+            }
+            return minima;
+        }
+
+        /** Divide todos os contadores por 2: cada nibble é deslocado e o bit que passaria ao vizinho é descartado. */
+        private void envelhecer() {
+            for (int i = 0; i < contadores.length; i++) {
+                contadores[i] = (byte) (((contadores[i] & 0xFF) >>> 1) & 0x77);
+            }
+            acessos /= 2;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapeamento de chaves inteiras que se adapta à quantidade de itens, pensado para os muitos conjuntos pequenos
+ * (como os produtos vendidos por cada fornecedor).
+ *
+ * Até {@link #LIMITE_VETOR} itens, as chaves ficam num vetor {@code int[]} ordenado, com os valores num vetor paralelo,
+ * e são localizadas por busca binária: não há nós nem objetos por item, e um conjunto vazio não aloca vetores.
+ * Ao ultrapassar esse limite, os itens migram para uma {@link AVLInt}, que passa a atender todas as operações.
+ *
+ * As métricas das operações são acumuladas no nível do conjunto, em qualquer das duas representações. Os conjuntos de
+ * cada fornecedor são criados sem métricas, para que milhares de conjuntos pequenos não aloquem um acumulador cada.
+ * @param <V> tipo dos valores armazenados.
+ */
+public class ConjuntoAdaptativo<V> implements IMapeamento<Integer, V> {
+
+    /** Quantidade máxima de itens mantidos nos vetores ordenados antes da migração para a árvore. */
+    public static final int LIMITE_VETOR = 16;
+
+    private static final int[] CHAVES_VAZIAS = new int[0];
+    private static final Object[] VALORES_VAZIOS = new Object[0];
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    private int[] chaves;
+    private Object[] valores;
+    private int tamanho;
+    /** Árvore que substitui os vetores após a migração, ou null enquanto os vetores estiverem em uso. */
+    private AVLInt<V> arvore;
+
+    private long comparacoes;
+    private int sondagens; // comparações da última chamada a buscar.
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas;
+
+    public ConjuntoAdaptativo() {
+        this(MetricasOperacoes.ATIVAS);
+    }
+
+    /**
+     * Construtor que permite dispensar as métricas, para os conjuntos mantidos em grande quantidade.
+     * @param acumularMetricas indica se o conjunto deve acumular as métricas de suas operações.
+     */
+    ConjuntoAdaptativo(boolean acumularMetricas) {
+        metricas = (acumularMetricas && MetricasOperacoes.ATIVAS) ? new MetricasOperacoes("ConjuntoAdaptativo") : null;
+        chaves = CHAVES_VAZIAS;
+        valores = VALORES_VAZIOS;
+        tamanho = 0;
+        arvore = null;
+    }
+
+    /**
+     * Busca binária da chave no vetor ordenado. A quantidade de comparações desta busca fica em {@code sondagens}.
+     * @return a posição da chave, se presente; caso contrário, {@code -(ponto de inserção) - 1}.
+     */
+    private int buscar(int chave) {
+        int esquerda = 0;
+        int direita = tamanho - 1;
+        sondagens = 0;
+
+        while (esquerda <= direita) {
+            int meio = (esquerda + direita) >>> 1;
+            sondagens++;
+            if (chaves[meio] < chave)
+                esquerda = meio + 1;
+            else if (chaves[meio] > chave)
+                direita = meio - 1;
+            else
+                return meio;
+        }
+        return -(esquerda + 1);
+    }
+
+    /**
+     * Insere o item associado à chave informada. Caso a chave já exista, seu valor é substituído.
+     * @param chave a chave do item.
+     * @param item o item a ser armazenado.
+     * @return o tamanho atualizado do conjunto.
+     */
+    public int inserir(int chave, V item) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            if (arvore != null) {
+                return arvore.inserir(chave, item);
+            }
+
+            int posicao = buscar(chave);
+            if (posicao >= 0) {
+                valores[posicao] = item;
+                return tamanho;
+            }
+
+            if (tamanho == LIMITE_VETOR) {
+                migrarParaArvore();
+                return arvore.inserir(chave, item);
+            }
+
+            posicao = -(posicao + 1);
+            if (tamanho == chaves.length) {
+                int capacidade = Math.min(LIMITE_VETOR, Math.max(CAPACIDADE_INICIAL, tamanho * 2));
+                chaves = Arrays.copyOf(chaves, capacidade);
+                valores = Arrays.copyOf(valores, capacidade);
+            }
+            System.arraycopy(chaves, posicao, chaves, posicao + 1, tamanho - posicao);
+            System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+            chaves[posicao] = chave;
+            valores[posicao] = item;
+            tamanho++;
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesUltimaOperacao(), inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public int inserir(Integer chave, V item) {
+        return inserir(chave.intValue(), item);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrarParaArvore() {
+        arvore = new AVLInt<>(LIMITE_VETOR * 2, false);
+        for (int i = 0; i < tamanho; i++) {
+            arvore.inserir(chaves[i], (V) valores[i]);
+        }
+        chaves = CHAVES_VAZIAS;
+        valores = VALORES_VAZIOS;
+        tamanho = 0;
+    }
+
+    /**
+     * Verifica se a chave está no conjunto.
+     * @param chave a chave procurada.
+     * @return true se a chave estiver no conjunto.
+     */
+    public boolean contem(int chave) {
+        if (arvore != null) {
+            return arvore.contem(chave);
+        }
+        int posicao = buscar(chave);
+        comparacoes = sondagens;
+        return posicao >= 0;
+    }
+
+    /**
+     * Pesquisa o item associado à chave informada.
+     * @param chave a chave procurada.
+     * @return o item associado à chave.
+     * @throws NoSuchElementException caso a chave não esteja no conjunto.
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisar(int chave) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            if (arvore != null) {
+                return arvore.pesquisar(chave);
+            }
+
+            inicio = System.nanoTime();
+            int posicao = buscar(chave);
+            comparacoes = sondagens;
+            termino = System.nanoTime();
+            if (posicao < 0)
+                throw new NoSuchElementException("O item não foi localizado no conjunto!");
+            return (V) valores[posicao];
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoesUltimaOperacao(), inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public V pesquisar(Integer chave) {
+        return pesquisar(chave.intValue());
+    }
+
+    /**
+     * Remove o item associado à chave informada. O conjunto continua na árvore se já tiver migrado para ela.
+     * @param chave a chave do item a ser removido.
+     * @return o valor associado ao item removido.
+     * @throws NoSuchElementException caso a chave não esteja no conjunto.
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int chave) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            if (arvore != null) {
+                return arvore.remover(chave);
+            }
+
+            int posicao = buscar(chave);
+            if (posicao < 0)
+                throw new NoSuchElementException("O item não foi localizado no conjunto!");
+
+            V itemRemovido = (V) valores[posicao];
+            tamanho--;
+            System.arraycopy(chaves, posicao + 1, chaves, posicao, tamanho - posicao);
+            System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao);
+            valores[tamanho] = null;
+            return itemRemovido;
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesUltimaOperacao(), inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public V remover(Integer chave) {
+        return remover(chave.intValue());
+    }
+
+    @Override
+    public int tamanho() {
+        return (arvore != null) ? arvore.tamanho() : tamanho;
+    }
+
+    /**
+     * Retorna as estatísticas da representação atual. No modo vetor, a profundidade de cada chave é a quantidade de
+     * comparações que a busca binária faz para encontrá-la, ou seja, sua profundidade na árvore implícita da busca.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        if (arvore != null) {
+            return arvore.estatisticas("ConjuntoAdaptativo (AVLInt)");
+        }
+
+        EstatisticasEstrutura.ColetorArvore coletor = new EstatisticasEstrutura.ColetorArvore();
+        registrarProfundidades(coletor, 0, tamanho - 1, 1);
+        return coletor.concluir("ConjuntoAdaptativo (vetor)", tamanho);
+    }
+
+    private static void registrarProfundidades(EstatisticasEstrutura.ColetorArvore coletor, int esquerda, int direita, int profundidade) {
+        if (esquerda > direita)
+            return;
+        int meio = (esquerda + direita) >>> 1;
+        coletor.registrar(profundidade, 1);
+        registrarProfundidades(coletor, esquerda, meio - 1, profundidade + 1);
+        registrarProfundidades(coletor, meio + 1, direita, profundidade + 1);
+    }
+
+    /**
+     * Retorna um iterador das entradas do conjunto, em ordem crescente de chave.
+     * O conjunto não deve ser modificado durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<Integer, V>> iterator() {
+        if (arvore != null) {
+            return arvore.iterator();
+        }
+        return new Iterator<Entrada<Integer, V>>() {
+
+            private int posicao = 0;
+
+            @Override
+            public boolean hasNext() {
+                return posicao < tamanho;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Entrada<Integer, V> next() {
+                if (posicao >= tamanho) {
+                    throw new NoSuchElementException();
+                }
+                Entrada<Integer, V> entrada = new Entrada<>(chaves[posicao], (V) valores[posicao]);
+                posicao++;
+                return entrada;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+
+    @Override
+    public String percorrer() {
+        StringBuilder resultado = new StringBuilder();
+        try {
+            caminhamentoEmOrdem(resultado);
+        } catch (IOException excecao) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(excecao);
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Escreve cada item, em ordem crescente de chave e seguido de uma quebra de linha, diretamente no destino informado.
+     * @param destino destino dos itens.
+     * @throws IOException em caso de erro de escrita no destino.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+        if (arvore != null) {
+            arvore.caminhamentoEmOrdem(destino);
+            return;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            destino.append(valores[i].toString()).append('\n');
+        }
+    }
+
+    /** Comparações da última operação, feita nos vetores ou na árvore. */
+    private long comparacoesUltimaOperacao() {
+        return (arvore != null) ? arvore.getComparacoesUltimaOperacao() : sondagens;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return (arvore != null) ? arvore.getComparacoes() : comparacoes;
+    }
+
+    @Override
+    public double getTempo() {
+        return (arvore != null) ? arvore.getTempo() : (termino - inicio) / 1_000_000.0;
+    }
+}
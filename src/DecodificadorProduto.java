@@ -0,0 +1,175 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Decodifica produtos diretamente a partir dos bytes de uma linha no formato
+ * "tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade]", o mesmo de {@link Produto#criarDoTexto(String)}.
+ * 
+ * Os campos são localizados e convertidos no próprio buffer, sem dividir a linha em strings: apenas a descrição
+ * gera uma {@code String}. Preços aceitam vírgula ou ponto como separador decimal e datas seguem o formato dd/MM/yyyy.
+ * Cada instância mantém um vetor auxiliar reaproveitado entre linhas e não deve ser compartilhada entre threads.
+ */
+class DecodificadorProduto {
+
+    private static final long[] POTENCIAS_DE_10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L
+    };
+
+    private byte[] auxiliar = new byte[256];
+
+    /** Posição do próximo campo, atualizada a cada campo lido. */
+    private int cursor;
+
+    /**
+     * Cria um produto a partir dos bytes {@code [inicio, fim)} do buffer, sem alterar sua posição.
+     * Uma quebra de linha {@code \r} ao final é ignorada.
+     * @param buffer buffer com os dados.
+     * @param inicio posição do primeiro byte da linha.
+     * @param fim posição seguinte ao último byte da linha.
+     * @return o produto criado.
+     * @throws NumberFormatException se algum campo numérico for inválido.
+     * @throws IllegalArgumentException se a linha não tiver os campos esperados ou os dados do produto forem inválidos.
+     */
+    Produto decodificar(ByteBuffer buffer, int inicio, int fim) {
+        return decodificar(buffer, inicio, fim, 0, false);
+    }
+
+    /**
+     * Cria um produto a partir dos bytes {@code [inicio, fim)} do buffer, com o identificador informado,
+     * previamente reservado por {@link Produto#reservarIdentificadores(int)}.
+     * @param buffer buffer com os dados.
+     * @param inicio posição do primeiro byte da linha.
+     * @param fim posição seguinte ao último byte da linha.
+     * @param idProduto identificador do produto.
+     * @return o produto criado.
+     */
+    Produto decodificar(ByteBuffer buffer, int inicio, int fim, int idProduto) {
+        return decodificar(buffer, inicio, fim, idProduto, true);
+    }
+
+    private Produto decodificar(ByteBuffer buffer, int inicio, int fim, int idProduto, boolean identificado) {
+        if (fim > inicio && buffer.get(fim - 1) == '\r') {
+            fim--;
+        }
+        cursor = inicio;
+
+        int tipo = (int) lerInteiro(buffer, fim, ';');
+        String descricao = lerTexto(buffer, fim);
+        double precoCusto = lerDecimal(buffer, fim);
+        double margemLucro = lerDecimal(buffer, fim);
+
+        if (tipo == 2) {
+            LocalDate dataDeValidade = lerData(buffer, fim);
+            return identificado ? new ProdutoPerecivel(idProduto, descricao, precoCusto, margemLucro, dataDeValidade)
+                                : new ProdutoPerecivel(descricao, precoCusto, margemLucro, dataDeValidade);
+        }
+        return identificado ? new ProdutoNaoPerecivel(idProduto, descricao, precoCusto, margemLucro)
+                            : new ProdutoNaoPerecivel(descricao, precoCusto, margemLucro);
+    }
+
+    /** Retorna a posição do próximo ';' a partir do cursor, ou o fim da linha. */
+    private int fimDoCampo(ByteBuffer buffer, int fim) {
+        int posicao = cursor;
+        while (posicao < fim && buffer.get(posicao) != ';') {
+            posicao++;
+        }
+        return posicao;
+    }
+
+    private long lerInteiro(ByteBuffer buffer, int fim, char separador) {
+        long valor = 0;
+        int digitos = 0;
+
+        while (cursor < fim && buffer.get(cursor) != separador) {
+            int digito = buffer.get(cursor++) - '0';
+            if (digito < 0 || digito > 9 || ++digitos > 18) {
+                throw new NumberFormatException("Número inválido na linha de produto.");
+            }
+            valor = valor * 10 + digito;
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Campo numérico vazio na linha de produto.");
+        }
+        cursor++; // separador
+        return valor;
+    }
+
+    private String lerTexto(ByteBuffer buffer, int fim) {
+        int fimCampo = fimDoCampo(buffer, fim);
+        int tamanho = fimCampo - cursor;
+
+        if (fimCampo >= fim) {
+            throw new IllegalArgumentException("Linha de produto incompleta.");
+        }
+        if (tamanho > auxiliar.length) {
+            auxiliar = new byte[Math.max(tamanho, auxiliar.length * 2)];
+        }
+        buffer.get(cursor, auxiliar, 0, tamanho);
+        cursor = fimCampo + 1;
+        return new String(auxiliar, 0, tamanho, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê um decimal com vírgula (ou ponto) como separador. A divisão da mantissa inteira por uma potência de 10 exata
+     * é corretamente arredondada, produzindo o mesmo valor que {@link Double#parseDouble(String)}
+     * para até 15 dígitos; campos com mais dígitos são convertidos pelo próprio {@link Double#parseDouble(String)}.
+     */
+    private double lerDecimal(ByteBuffer buffer, int fim) {
+        int fimCampo = fimDoCampo(buffer, fim);
+        int inicioCampo = cursor;
+        boolean negativo = false;
+        long mantissa = 0;
+        int digitos = 0;
+        int casasDecimais = -1;
+
+        if (cursor < fimCampo && buffer.get(cursor) == '-') {
+            negativo = true;
+            cursor++;
+        }
+        for (; cursor < fimCampo; cursor++) {
+            byte caractere = buffer.get(cursor);
+            if ((caractere == ',' || caractere == '.') && casasDecimais < 0) {
+                casasDecimais = 0;
+            } else if (caractere >= '0' && caractere <= '9') {
+                if (digitos == 15) {
+                    // A mantissa deixaria de ser exata como double: o arredondamento correto fica com a biblioteca
+                    return lerDecimalLongo(buffer, inicioCampo, fimCampo);
+                }
+                mantissa = mantissa * 10 + (caractere - '0');
+                digitos++;
+                if (casasDecimais >= 0) {
+                    casasDecimais++;
+                }
+            } else {
+                throw new NumberFormatException("Valor decimal inválido na linha de produto.");
+            }
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Campo decimal vazio na linha de produto.");
+        }
+        cursor = fimCampo + 1;
+
+        double valor = (casasDecimais > 0) ? mantissa / (double) POTENCIAS_DE_10[casasDecimais] : mantissa;
+        return negativo ? -valor : valor;
+    }
+
+    private double lerDecimalLongo(ByteBuffer buffer, int inicioCampo, int fimCampo) {
+        int tamanho = fimCampo - inicioCampo;
+        if (tamanho > auxiliar.length) {
+            auxiliar = new byte[Math.max(tamanho, auxiliar.length * 2)];
+        }
+        buffer.get(inicioCampo, auxiliar, 0, tamanho);
+        cursor = fimCampo + 1;
+        return Double.parseDouble(new String(auxiliar, 0, tamanho, StandardCharsets.ISO_8859_1).replace(",", "."));
+    }
+
+    private LocalDate lerData(ByteBuffer buffer, int fim) {
+        int dia = (int) lerInteiro(buffer, fim, '/');
+        int mes = (int) lerInteiro(buffer, fim, '/');
+        int ano = (int) lerInteiro(buffer, fim, ';');
+        return LocalDate.of(ano, mes, dia);
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Retrato da forma de uma estrutura de busca num dado momento, calculado numa única passagem pela estrutura.
+ *
+ * Para árvores: altura, profundidade média e máxima dos itens e histograma de profundidades (a raiz tem profundidade 1,
+ * de modo que a profundidade de um item é a quantidade de nós visitados para alcançá-lo). Para tabelas hash: fator de
+ * carga, proporção de posições vazias, maior cadeia, cadeia média e histograma dos comprimentos das cadeias; nas tabelas
+ * de endereçamento aberto, cada sequência contínua de posições ocupadas conta como uma cadeia.
+ *
+ * O retrato pode ser exportado como texto ({@link #toString()}) ou JSON ({@link #comoJson()}).
+ */
+public class EstatisticasEstrutura {
+
+    public enum Tipo {
+        ARVORE,
+        TABELA_HASH,
+        OUTRA
+    }
+
+    private final String estrutura;
+    private final Tipo tipo;
+    private final int tamanho;
+
+    private final int altura;
+    private final int alturaMinima;
+    private final double profundidadeMedia;
+    private final long[] histogramaProfundidades;
+
+    private final int capacidade;
+    private final double proporcaoVazias;
+    private final int maiorCadeia;
+    private final double cadeiaMedia;
+    private final long[] histogramaCadeias;
+
+    private EstatisticasEstrutura(String estrutura, Tipo tipo, int tamanho,
+                                  int altura, int alturaMinima, double profundidadeMedia, long[] histogramaProfundidades,
+                                  int capacidade, double proporcaoVazias, int maiorCadeia, double cadeiaMedia,
+                                  long[] histogramaCadeias) {
+        this.estrutura = estrutura;
+        this.tipo = tipo;
+        this.tamanho = tamanho;
+        this.altura = altura;
+        this.alturaMinima = alturaMinima;
+        this.profundidadeMedia = profundidadeMedia;
+        this.histogramaProfundidades = histogramaProfundidades;
+        this.capacidade = capacidade;
+        this.proporcaoVazias = proporcaoVazias;
+        this.maiorCadeia = maiorCadeia;
+        this.cadeiaMedia = cadeiaMedia;
+        this.histogramaCadeias = histogramaCadeias;
+    }
+
+    /**
+     * Retrato mínimo, apenas com o tamanho, para estruturas sem forma de árvore ou de tabela.
+     */
+    static EstatisticasEstrutura basicas(String estrutura, int tamanho) {
+        return new EstatisticasEstrutura(estrutura, Tipo.OUTRA, tamanho, 0, 0, 0, new long[0], 0, 0, 0, 0, new long[0]);
+    }
+
+    /**
+     * Calcula o retrato de uma árvore binária formada por {@link No}, percorrendo-a nível a nível.
+     */
+    static EstatisticasEstrutura deArvore(String estrutura, No<?, ?> raiz, int tamanho) {
+        ColetorArvore coletor = new ColetorArvore();
+        List<No<?, ?>> nivel = new ArrayList<>();
+        int profundidade = 0;
+
+        if (raiz != null) {
+            nivel.add(raiz);
+        }
+        while (!nivel.isEmpty()) {
+            profundidade++;
+            List<No<?, ?>> proximoNivel = new ArrayList<>(nivel.size() * 2);
+            for (No<?, ?> no : nivel) {
+                coletor.registrar(profundidade, 1);
+                // Cada filho é lido uma única vez: uma rotação concorrente não pode trocá-lo entre o teste e o uso.
+                No<?, ?> esquerda = no.getEsquerda();
+                No<?, ?> direita = no.getDireita();
+                if (esquerda != null)
+                    proximoNivel.add(esquerda);
+                if (direita != null)
+                    proximoNivel.add(direita);
+            }
+            nivel = proximoNivel;
+        }
+        return coletor.concluir(estrutura, tamanho);
+    }
+
+    /**
+     * Acumula as profundidades dos itens de uma árvore.
+     */
+    static final class ColetorArvore {
+        private long[] histograma = new long[16];
+        private int maxima;
+        private long soma;
+        private long quantidade;
+
+        void registrar(int profundidade, long itens) {
+            if (profundidade >= histograma.length) {
+                histograma = Arrays.copyOf(histograma, Math.max(profundidade + 1, histograma.length * 2));
+            }
+            histograma[profundidade] += itens;
+            maxima = Math.max(maxima, profundidade);
+            soma += profundidade * itens;
+            quantidade += itens;
+        }
+
+        /**
+         * Conclui o retrato de uma árvore binária, cuja altura mínima com n itens é floor(log2(n)) + 1.
+         */
+        EstatisticasEstrutura concluir(String estrutura, int tamanho) {
+            return concluir(estrutura, tamanho, 32 - Integer.numberOfLeadingZeros(tamanho));
+        }
+
+        EstatisticasEstrutura concluir(String estrutura, int tamanho, int alturaMinima) {
+            return new EstatisticasEstrutura(estrutura, Tipo.ARVORE, tamanho,
+                maxima, alturaMinima, (quantidade == 0) ? 0 : soma / (double) quantidade, Arrays.copyOf(histograma, maxima + 1),
+                0, 0, 0, 0, new long[0]);
+        }
+    }
+
+    /**
+     * Acumula os comprimentos das cadeias e a quantidade de posições vazias de uma tabela hash.
+     */
+    static final class ColetorTabela {
+        private long[] histograma = new long[16];
+        private int maior;
+        private long soma;
+        private long cadeias;
+        private long vazias;
+
+        void registrarCadeia(int comprimento) {
+            if (comprimento == 0) {
+                vazias++;
+                return;
+            }
+            if (comprimento >= histograma.length) {
+                histograma = Arrays.copyOf(histograma, Math.max(comprimento + 1, histograma.length * 2));
+            }
+            histograma[comprimento]++;
+            maior = Math.max(maior, comprimento);
+            soma += comprimento;
+            cadeias++;
+        }
+
+        /**
+         * Registra as sequências de posições ocupadas de uma tabela de endereçamento aberto, considerando que a
+         * sondagem continua do fim para o início do vetor.
+         * @param ocupada indica se uma posição está ocupada.
+         * @param capacidade quantidade de posições da tabela.
+         */
+        void registrarSequencias(IntPredicate ocupada, int capacidade) {
+            int primeiraLivre = 0;
+            while (primeiraLivre < capacidade && ocupada.test(primeiraLivre)) {
+                primeiraLivre++;
+            }
+            if (primeiraLivre == capacidade) {
+                registrarCadeia(capacidade);
+                return;
+            }
+
+            // Começando numa posição livre, nenhuma sequência fica dividida entre o fim e o início do vetor.
+            int comprimento = 0;
+            for (int i = 1; i <= capacidade; i++) {
+                if (ocupada.test((primeiraLivre + i) % capacidade)) {
+                    comprimento++;
+                } else {
+                    if (comprimento > 0) {
+                        registrarCadeia(comprimento);
+                        comprimento = 0;
+                    }
+                    vazias++;
+                }
+            }
+        }
+
+        EstatisticasEstrutura concluir(String estrutura, int tamanho, int capacidade) {
+            return new EstatisticasEstrutura(estrutura, Tipo.TABELA_HASH, tamanho, 0, 0, 0, new long[0],
+                capacidade, (capacidade == 0) ? 0 : vazias / (double) capacidade,
+                maior, (cadeias == 0) ? 0 : soma / (double) cadeias, Arrays.copyOf(histograma, maior + 1));
+        }
+    }
+
+    public String getEstrutura() {
+        return estrutura;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    public double getProfundidadeMedia() {
+        return profundidadeMedia;
+    }
+
+    public int getProfundidadeMaxima() {
+        return altura;
+    }
+
+    /**
+     * Retorna o histograma de profundidades: a posição p contém a quantidade de itens de profundidade p.
+     */
+    public long[] getHistogramaProfundidades() {
+        return histogramaProfundidades.clone();
+    }
+
+    /**
+     * Retorna a menor altura possível de uma árvore do mesmo tipo com a mesma quantidade de itens.
+     */
+    public int getAlturaMinima() {
+        return alturaMinima;
+    }
+
+    /**
+     * Retorna a razão entre a altura e a altura mínima. Valores próximos de 1 indicam uma árvore balanceada;
+     * uma árvore binária degenerada em lista chega a n / log2(n).
+     */
+    public double getRazaoAlturaMinima() {
+        return (alturaMinima == 0) ? 0 : altura / (double) alturaMinima;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public double getFatorCarga() {
+        return (capacidade == 0) ? 0 : tamanho / (double) capacidade;
+    }
+
+    public double getProporcaoVazias() {
+        return proporcaoVazias;
+    }
+
+    public int getMaiorCadeia() {
+        return maiorCadeia;
+    }
+
+    public double getCadeiaMedia() {
+        return cadeiaMedia;
+    }
+
+    /**
+     * Retorna o histograma de cadeias: a posição c contém a quantidade de cadeias de comprimento c.
+     */
+    public long[] getHistogramaCadeias() {
+        return histogramaCadeias.clone();
+    }
+
+    /**
+     * Exporta o retrato como um objeto JSON.
+     */
+    public String comoJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"estrutura\":\"").append(estrutura).append("\",\"tipo\":\"").append(tipo)
+          .append("\",\"tamanho\":").append(tamanho);
+
+        if (tipo == Tipo.ARVORE) {
+            sb.append(",\"altura\":").append(altura)
+              .append(",\"alturaMinima\":").append(alturaMinima)
+              .append(",\"profundidadeMedia\":").append(String.format("%.4f", profundidadeMedia).replace(',', '.'))
+              .append(",\"profundidadeMaxima\":").append(altura)
+              .append(",\"histogramaProfundidades\":").append(Arrays.toString(histogramaProfundidades).replace(" ", ""));
+        } else if (tipo == Tipo.TABELA_HASH) {
+            sb.append(",\"capacidade\":").append(capacidade)
+              .append(",\"fatorCarga\":").append(String.format("%.4f", getFatorCarga()).replace(',', '.'))
+              .append(",\"proporcaoVazias\":").append(String.format("%.4f", proporcaoVazias).replace(',', '.'))
+              .append(",\"maiorCadeia\":").append(maiorCadeia)
+              .append(",\"cadeiaMedia\":").append(String.format("%.4f", cadeiaMedia).replace(',', '.'))
+              .append(",\"histogramaCadeias\":").append(Arrays.toString(histogramaCadeias).replace(" ", ""));
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(estrutura).append(" - itens: ").append(tamanho).append("\n");
+
+        if (tipo == Tipo.ARVORE) {
+            sb.append(String.format("altura: %d (%.2fx a mínima) | profundidade média: %.2f | profundidade máxima: %d%n",
+                altura, getRazaoAlturaMinima(), profundidadeMedia, altura));
+            sb.append("itens por profundidade: ");
+            for (int p = 1; p < histogramaProfundidades.length; p++) {
+                sb.append((p > 1) ? ", " : "").append(p).append('=').append(histogramaProfundidades[p]);
+            }
+            sb.append("\n");
+        } else if (tipo == Tipo.TABELA_HASH) {
+            sb.append(String.format("capacidade: %d | fator de carga: %.2f | posições vazias: %.1f%% | maior cadeia: %d | cadeia média: %.2f%n",
+                capacidade, getFatorCarga(), proporcaoVazias * 100, maiorCadeia, cadeiaMedia));
+            sb.append("cadeias por comprimento: ");
+            for (int c = 1; c < histogramaCadeias.length; c++) {
+                sb.append((c > 1) ? ", " : "").append(c).append('=').append(histogramaCadeias[c]);
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,114 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos do Java Flight Recorder emitidos pelas estruturas de busca.
+ *
+ * Os eventos só são gravados quando uma gravação do JFR os habilita (todos vêm habilitados por padrão); fora de uma
+ * gravação, {@link Event#isEnabled()} é falso e o custo se resume à verificação. As operações lentas são detectadas
+ * a partir das medições de {@link MetricasOperacoes} e, portanto, dependem de {@link MetricasOperacoes#ATIVAS}.
+ * O limiar de lentidão é lido da propriedade de sistema {@code aeds.jfr.limiarMicros} (padrão: 1000 µs).
+ */
+public final class EventosJfr {
+
+    /** Duração mínima, em nanossegundos, para que uma operação seja registrada como lenta. */
+    static final long LIMIAR_OPERACAO_LENTA = Long.getLong("aeds.jfr.limiarMicros", 1_000L) * 1_000L;
+
+    private EventosJfr() {
+    }
+
+    @Name("aeds.OperacaoLenta")
+    @Label("Operação lenta")
+    @Description("Chamada de pesquisar, inserir ou remover que durou mais que o limiar configurado")
+    @Category({"AEDs", "Estruturas de busca"})
+    static final class OperacaoLenta extends Event {
+        @Label("Estrutura")
+        String estrutura;
+
+        @Label("Operação")
+        String operacao;
+
+        @Label("Chave")
+        String chave;
+
+        @Label("Comparações")
+        long comparacoes;
+
+        @Label("Duração da operação")
+        @Timespan(Timespan.NANOSECONDS)
+        long duracaoOperacao;
+    }
+
+    @Name("aeds.Rotacao")
+    @Label("Rotação de rebalanceamento")
+    @Category({"AEDs", "Estruturas de busca"})
+    @StackTrace(false)
+    static final class Rotacao extends Event {
+        @Label("Estrutura")
+        String estrutura;
+
+        @Label("Tipo")
+        @Description("simples à direita, simples à esquerda, dupla esquerda-direita ou dupla direita-esquerda")
+        String tipo;
+
+        @Label("Chave do nó desbalanceado")
+        String chave;
+
+        @Label("Altura da subárvore")
+        int alturaSubarvore;
+    }
+
+    @Name("aeds.Redimensionamento")
+    @Label("Redimensionamento de tabela hash")
+    @Description("Início de um redimensionamento incremental; a duração cobre a alocação da nova tabela")
+    @Category({"AEDs", "Estruturas de busca"})
+    static final class Redimensionamento extends Event {
+        @Label("Estrutura")
+        String estrutura;
+
+        @Label("Capacidade anterior")
+        int capacidadeAnterior;
+
+        @Label("Nova capacidade")
+        int capacidadeNova;
+
+        @Label("Itens")
+        int tamanho;
+    }
+
+    /**
+     * Grava um evento de operação lenta, caso a duração atinja o limiar e o evento esteja habilitado.
+     * A chave só é convertida em texto quando o evento é gravado.
+     */
+    static void operacaoLenta(String estrutura, MetricasOperacoes.Operacao operacao, Object chave,
+                              long comparacoes, long duracao) {
+        OperacaoLenta evento = new OperacaoLenta();
+        if (evento.isEnabled()) {
+            evento.estrutura = estrutura;
+            evento.operacao = operacao.toString();
+            evento.chave = String.valueOf(chave);
+            evento.comparacoes = comparacoes;
+            evento.duracaoOperacao = duracao;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Grava um evento de rotação, caso esteja habilitado.
+     */
+    static void rotacao(String estrutura, String tipo, Object chave, int alturaSubarvore) {
+        Rotacao evento = new Rotacao();
+        if (evento.isEnabled()) {
+            evento.estrutura = estrutura;
+            evento.tipo = tipo;
+            evento.chave = String.valueOf(chave);
+            evento.alturaSubarvore = alturaSubarvore;
+            evento.commit();
+        }
+    }
+}
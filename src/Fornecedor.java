@@ -1,12 +1,10 @@
-import java.util.NoSuchElementException;
-
 public class Fornecedor {
     
     private static int ultimoDocumento = 10_000;
     
     private int documento;
     private String nome;
-    private ABB<Integer, Produto> produtosVendidos;
+    private ConjuntoAdaptativo<Produto> produtosVendidos;
 
     
     /**
@@ -22,7 +20,35 @@ public class Fornecedor {
         }
         this.nome = nome;
         this.documento = ultimoDocumento++;
-        this.produtosVendidos = new ABB<>();
+        this.produtosVendidos = new ConjuntoAdaptativo<>(false);
+    }
+    
+    /**
+     * Construtor com documento já definido, usado na restauração de fornecedores (por exemplo, de um snapshot).
+     * Não avança o contador de documentos; ver {@link #avancarDocumentos(int)}.
+     * @param documento Documento identificador do fornecedor
+     * @param nome Nome do fornecedor
+     */
+    Fornecedor(int documento, String nome) {
+        this.nome = nome;
+        this.documento = documento;
+        this.produtosVendidos = new ConjuntoAdaptativo<>(false);
+    }
+    
+    /**
+     * Retorna o documento que será atribuído ao próximo fornecedor criado.
+     * @return o próximo documento.
+     */
+    static int proximoDocumento() {
+        return ultimoDocumento;
+    }
+    
+    /**
+     * Garante que os próximos documentos atribuídos sejam maiores ou iguais ao valor informado.
+     * @param proximo menor valor permitido para o próximo documento.
+     */
+    static void avancarDocumentos(int proximo) {
+        ultimoDocumento = Math.max(ultimoDocumento, proximo);
     }
     
     /**
@@ -37,6 +63,15 @@ public class Fornecedor {
         produtosVendidos.inserir(produto.hashCode(), produto);
     }
     
+    /**
+     * Verifica se o fornecedor vende o produto de id informado.
+     * @param idProduto id do produto
+     * @return true se o produto estiver entre os vendidos pelo fornecedor
+     */
+    public boolean vendeProduto(int idProduto) {
+        return produtosVendidos.contem(idProduto);
+    }
+    
     /**
      * Retorna o documento identificador do fornecedor.
      * @return documento do fornecedor
@@ -54,10 +89,10 @@ public class Fornecedor {
     }
     
     /**
-     * Retorna a árvore de produtos vendidos pelo fornecedor.
-     * @return árvore de produtos
+     * Retorna o conjunto de produtos vendidos pelo fornecedor, indexado pelo id do produto.
+     * @return conjunto de produtos
      */
-    public ABB<Integer, Produto> getProdutosVendidos() {
+    public ConjuntoAdaptativo<Produto> getProdutosVendidos() {
         return produtosVendidos;
     }
     
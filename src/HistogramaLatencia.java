@@ -0,0 +1,157 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma cumulativo de latências, em nanossegundos, com precisão relativa limitada, no estilo dos histogramas HDR.
+ *
+ * Cada potência de 2 é dividida em {@value #SUBFAIXAS} faixas de mesma largura, de modo que o erro de qualquer
+ * valor registrado é de no máximo 1/{@value #SUBFAIXAS} (cerca de 6%), com um vetor de tamanho fixo que cobre
+ * de 1 ns a 2^63 ns. O registro é um único incremento atômico, sem alocação; os percentis são calculados
+ * somando as faixas.
+ *
+ * Assim como em {@link java.util.concurrent.atomic.LongAdder}, as contagens são distribuídas em células: cada thread
+ * incrementa a célula escolhida pelo hash de seu identificador, e as leituras somam todas as células. O histograma
+ * começa com uma única célula e só dobra a quantidade delas, até o número de processadores, quando um incremento
+ * encontra disputa; estruturas acessadas por uma única thread não pagam pela memória adicional.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int QUANTIDADE_FAIXAS = (64 - BITS_SUBFAIXA) * SUBFAIXAS;
+
+    private static final int MAXIMO_CELULAS =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private volatile AtomicLongArray[] celulas = { new AtomicLongArray(QUANTIDADE_FAIXAS) };
+
+    /**
+     * Índice da faixa do valor: valores menores que {@value #SUBFAIXAS} têm faixa própria; os demais são
+     * classificados pelo expoente do bit mais significativo e pelos {@value #BITS_SUBFAIXA} bits seguintes.
+     */
+    private static int faixa(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) Math.max(0, valor);
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int subfaixa = (int) ((valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1));
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    /** Maior valor classificado na faixa informada. */
+    private static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        long subfaixa = faixa % SUBFAIXAS;
+        return ((SUBFAIXAS + subfaixa + 1) << (expoente - BITS_SUBFAIXA)) - 1;
+    }
+
+    /**
+     * Registra uma latência.
+     * @param nanossegundos a latência, em nanossegundos.
+     */
+    public void registrar(long nanossegundos) {
+        int faixa = faixa(nanossegundos);
+        AtomicLongArray[] atuais = celulas;
+        AtomicLongArray celula = atuais[indiceThread() & (atuais.length - 1)];
+        long contagem = celula.get(faixa);
+
+        if (!celula.compareAndSet(faixa, contagem, contagem + 1)) {
+            // Outra thread incrementou a mesma faixa da mesma célula: distribui as threads em mais células.
+            expandir(atuais);
+            celula.incrementAndGet(faixa);
+        }
+    }
+
+    private static int indiceThread() {
+        return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private synchronized void expandir(AtomicLongArray[] vistas) {
+        if (celulas != vistas || vistas.length >= MAXIMO_CELULAS) {
+            return;
+        }
+        AtomicLongArray[] novas = Arrays.copyOf(vistas, vistas.length * 2);
+        for (int i = vistas.length; i < novas.length; i++) {
+            novas[i] = new AtomicLongArray(QUANTIDADE_FAIXAS);
+        }
+        celulas = novas;
+    }
+
+    /**
+     * Retorna as contagens de todas as faixas, somadas entre as células.
+     */
+    private long[] somarCelulas() {
+        long[] soma = new long[QUANTIDADE_FAIXAS];
+        for (AtomicLongArray celula : celulas) {
+            for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+                soma[i] += celula.get(i);
+            }
+        }
+        return soma;
+    }
+
+    /**
+     * Retorna a quantidade de latências registradas.
+     */
+    public long quantidade() {
+        long total = 0;
+        for (long contagem : somarCelulas()) {
+            total += contagem;
+        }
+        return total;
+    }
+
+    /**
+     * Retorna a latência abaixo da qual (inclusive) estão as latências do percentil informado, arredondada para cima
+     * até o limite da faixa correspondente.
+     * @param percentil o percentil desejado, entre 0 e 100 (por exemplo, 99.9).
+     * @return a latência do percentil, em nanossegundos, ou 0 se nada foi registrado.
+     */
+    public long percentil(double percentil) {
+        long[] copia = somarCelulas();
+        long total = 0;
+        for (long contagem : copia) {
+            total += contagem;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long posicao = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= posicao) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(QUANTIDADE_FAIXAS - 1);
+    }
+
+    /**
+     * Retorna a maior latência registrada, arredondada para cima até o limite de sua faixa.
+     */
+    public long maximo() {
+        long[] contagens = somarCelulas();
+        for (int i = QUANTIDADE_FAIXAS - 1; i >= 0; i--) {
+            if (contagens[i] > 0) {
+                return limiteSuperior(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Descarta todas as latências registradas.
+     */
+    public void zerar() {
+        for (AtomicLongArray celula : celulas) {
+            for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+                celula.set(i, 0);
+            }
+        }
+    }
+}
@@ -1,8 +1,39 @@
-public interface IMapeamento<K, V> extends IMedicao {
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public interface IMapeamento<K, V> extends IMedicao, Iterable<Entrada<K, V>> {
 
     public int inserir(K chave, V item);
     public V pesquisar(K chave);
     public V remover(K chave);
     public int tamanho();
     public String percorrer();
+
+    /**
+     * Retorna um fluxo sequencial com as entradas (chave e item) do mapeamento, na mesma ordem de sua iteração.
+     * As entradas são cópias: alterá-las não altera o mapeamento. O mapeamento não deve ser modificado durante o uso do fluxo.
+     * @return fluxo sequencial das entradas.
+     */
+    public default Stream<Entrada<K, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Retorna um fluxo possivelmente paralelo com as entradas do mapeamento, dividido conforme o {@link #spliterator()}
+     * de cada implementação. O mapeamento não deve ser modificado durante o uso do fluxo.
+     * @return fluxo paralelo das entradas.
+     */
+    public default Stream<Entrada<K, V>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Calcula, numa única passagem, as estatísticas da forma atual do mapeamento: altura e profundidades,
+     * no caso das árvores, ou ocupação e cadeias, no caso das tabelas hash.
+     * Implementações sem uma forma a descrever retornam apenas a quantidade de itens.
+     * @return retrato da estrutura no momento da chamada.
+     */
+    public default EstatisticasEstrutura estatisticas() {
+        return EstatisticasEstrutura.basicas(getClass().getSimpleName(), tamanho());
+    }
 }
@@ -2,4 +2,12 @@ public interface IMedicao {
     
 	public long getComparacoes();
     public double getTempo();
+    
+    /**
+     * Retorna as métricas cumulativas das operações da estrutura.
+     * @return as métricas, ou {@code null} se a estrutura não acumula métricas.
+     */
+    public default MetricasOperacoes getMetricas() {
+        return null;
+    }
 } 
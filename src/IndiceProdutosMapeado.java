@@ -0,0 +1,319 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Índice de produtos por id, somente leitura, mantido fora do heap num arquivo mapeado em memória.
+ * 
+ * As chaves ficam num vetor em layout de Eytzinger (a árvore binária de busca completa armazenada em largura:
+ * os filhos da posição k estão em 2k e 2k + 1), o que torna a pesquisa um laço sem desvios dependentes da comparação
+ * e mantém os primeiros níveis da árvore juntos nas mesmas linhas de cache. Cada chave tem, na mesma posição de um
+ * segundo vetor, o deslocamento do registro do produto no arquivo; o {@link Produto} só é decodificado quando
+ * a pesquisa o encontra. Nenhum nó, chave ou produto do índice ocupa o heap.
+ * 
+ * Formato (big-endian): cabeçalho com {@code int ASSINATURA, int VERSAO, int n, int reservado}; {@code n + 1} chaves
+ * {@code int} (a posição 0 não é usada); {@code n + 1} deslocamentos {@code long}; e os registros dos produtos no formato
+ * de {@link SnapshotCatalogo}. O arquivo inteiro deve ter menos de 2 GiB, limite de um único mapeamento.
+ */
+public class IndiceProdutosMapeado implements IMapeamento<Integer, Produto> {
+
+    private static final int ASSINATURA = 0x41454449; // "AEDI"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 16;
+
+    private final MappedByteBuffer dados;
+    private final IntBuffer chaves;
+    private final LongBuffer deslocamentos;
+    private final int tamanho;
+
+    private long comparacoes;
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("IndiceProdutosMapeado") : null;
+
+    /**
+     * Abre e mapeia em memória um índice gerado por {@link #gerar(String, IMapeamento)}.
+     * @param nomeArquivo nome do arquivo do índice.
+     * @throws IOException em caso de erro de leitura ou arquivo inválido.
+     */
+    public IndiceProdutosMapeado(String nomeArquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE || canal.size() < TAMANHO_CABECALHO) {
+                throw new IOException("Tamanho inválido para o índice mapeado.");
+            }
+            dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+
+        if (dados.getInt(0) != ASSINATURA || dados.getInt(4) != VERSAO) {
+            throw new IOException("Arquivo de índice inválido ou de versão não suportada.");
+        }
+        tamanho = dados.getInt(8);
+
+        long inicioDeslocamentos = TAMANHO_CABECALHO + 4L * (tamanho + 1);
+        if (tamanho < 0 || inicioDeslocamentos + 8L * (tamanho + 1) > dados.capacity()) {
+            throw new IOException("Arquivo de índice incompleto.");
+        }
+        chaves = dados.slice(TAMANHO_CABECALHO, 4 * (tamanho + 1)).asIntBuffer();
+        deslocamentos = dados.slice((int) inicioDeslocamentos, 8 * (tamanho + 1)).asLongBuffer();
+    }
+
+    /**
+     * Gera o arquivo do índice a partir dos produtos de um mapeamento (tipicamente, a árvore de produtos por id).
+     * @param nomeArquivo nome do arquivo a ser criado ou substituído.
+     * @param produtos mapeamento de produtos por id.
+     * @throws IOException em caso de erro de gravação.
+     */
+    public static void gerar(String nomeArquivo, IMapeamento<Integer, Produto> produtos) throws IOException {
+        List<Entrada<Integer, Produto>> ordenadas = new ArrayList<>(produtos.tamanho());
+        for (Entrada<Integer, Produto> entrada : produtos) {
+            ordenadas.add(entrada);
+        }
+        ordenadas.sort(Comparator.comparing(Entrada::getChave));
+
+        int n = ordenadas.size();
+        int[] posicaoEytzinger = new int[n];
+        distribuir(posicaoEytzinger, n);
+
+        int[] chavesEytzinger = new int[n + 1];
+        long[] deslocamentosEytzinger = new long[n + 1];
+        long deslocamento = TAMANHO_CABECALHO + 4L * (n + 1) + 8L * (n + 1);
+
+        for (int i = 0; i < n; i++) {
+            Entrada<Integer, Produto> entrada = ordenadas.get(i);
+            chavesEytzinger[posicaoEytzinger[i]] = entrada.getChave();
+            deslocamentosEytzinger[posicaoEytzinger[i]] = deslocamento;
+            deslocamento += tamanhoRegistro(entrada.getValor());
+        }
+
+        try (SnapshotCatalogo.Escritor escritor = new SnapshotCatalogo.Escritor(nomeArquivo)) {
+            escritor.inteiro(ASSINATURA);
+            escritor.inteiro(VERSAO);
+            escritor.inteiro(n);
+            escritor.inteiro(0);
+            for (int chave : chavesEytzinger) {
+                escritor.inteiro(chave);
+            }
+            for (long posicao : deslocamentosEytzinger) {
+                escritor.longo(posicao);
+            }
+            for (Entrada<Integer, Produto> entrada : ordenadas) {
+                SnapshotCatalogo.gravarProduto(escritor, entrada.getValor());
+            }
+            escritor.concluir();
+        }
+    }
+
+    /**
+     * Calcula a posição, no layout de Eytzinger, de cada posição do vetor ordenado, percorrendo em ordem
+     * (esquerda, raiz, direita) a árvore implícita de n posições.
+     */
+    private static void distribuir(int[] posicaoEytzinger, int n) {
+        int ordem = 0;
+        int k = 1;
+
+        // Desce até a posição mais à esquerda; depois, avança sempre para o sucessor em ordem.
+        while (2 * k <= n) {
+            k = 2 * k;
+        }
+        while (k != 0 && ordem < n) {
+            posicaoEytzinger[ordem++] = k;
+            k = sucessor(k, n);
+        }
+    }
+
+    /** Sucessor em ordem da posição k na árvore implícita de n posições, ou 0 se k for a última. */
+    private static int sucessor(int k, int n) {
+        if (2 * k + 1 <= n) {
+            k = 2 * k + 1;
+            while (2 * k <= n) {
+                k = 2 * k;
+            }
+            return k;
+        }
+        // Sobe enquanto k for filho direito; o pai do primeiro filho esquerdo encontrado é o sucessor.
+        while ((k & 1) == 1) {
+            k >>>= 1;
+        }
+        return k >>> 1;
+    }
+
+    private static long tamanhoRegistro(Produto produto) {
+        long bytes = 4 + 1 + 4 + produto.descricao.getBytes(StandardCharsets.UTF_8).length + 8 + 8;
+        if (produto instanceof ProdutoPerecivel) {
+            bytes += 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * Localiza a posição da chave no layout de Eytzinger. A descida escolhe o filho pelo resultado da comparação
+     * convertido em 0 ou 1, sem desvio condicional; ao final, os bits dos passos à direita dados após o último passo
+     * à esquerda são descartados, chegando à posição da menor chave maior ou igual à procurada.
+     * @return a posição da chave, ou 0 se ela não estiver no índice.
+     */
+    private int localizar(int chave) {
+        int k = 1;
+
+        while (k <= tamanho) {
+            comparacoes++;
+            k = 2 * k + (chaves.get(k) < chave ? 1 : 0);
+        }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+
+        return (k != 0 && chaves.get(k) == chave) ? k : 0;
+    }
+
+    /**
+     * Pesquisa o produto de id informado, decodificando-o do arquivo apenas se encontrado.
+     * @param chave o id do produto.
+     * @return o produto.
+     * @throws NoSuchElementException se o id não estiver no índice.
+     */
+    public Produto pesquisar(int chave) {
+        comparacoes = 0;
+        inicio = System.nanoTime();
+
+        try {
+            int posicao = localizar(chave);
+
+            if (posicao == 0) {
+                termino = System.nanoTime();
+                throw new NoSuchElementException("O item não foi localizado no índice!");
+            }
+            Produto produto = decodificar(posicao);
+            termino = System.nanoTime();
+            return produto;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public Produto pesquisar(Integer chave) {
+        return pesquisar(chave.intValue());
+    }
+
+    private Produto decodificar(int posicao) {
+        ByteBuffer registro = dados.duplicate();
+        registro.position((int) deslocamentos.get(posicao));
+        return SnapshotCatalogo.lerProduto(registro);
+    }
+
+    /**
+     * Operação não suportada: o índice é somente leitura.
+     * @throws UnsupportedOperationException sempre.
+     */
+    @Override
+    public int inserir(Integer chave, Produto item) {
+        throw new UnsupportedOperationException("O índice mapeado é somente leitura.");
+    }
+
+    /**
+     * Operação não suportada: o índice é somente leitura.
+     * @throws UnsupportedOperationException sempre.
+     */
+    @Override
+    public Produto remover(Integer chave) {
+        throw new UnsupportedOperationException("O índice mapeado é somente leitura.");
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna as estatísticas da busca no vetor de Eytzinger, que é uma árvore binária completa implícita:
+     * a chave da posição k fica na profundidade de k, isto é, na quantidade de bits significativos de k.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorArvore coletor = new EstatisticasEstrutura.ColetorArvore();
+
+        for (int profundidade = 1; (1 << (profundidade - 1)) <= tamanho; profundidade++) {
+            int primeira = 1 << (profundidade - 1);
+            int ultima = Math.min(tamanho, (primeira << 1) - 1);
+            coletor.registrar(profundidade, ultima - primeira + 1);
+        }
+        return coletor.concluir("IndiceProdutosMapeado", tamanho);
+    }
+
+    /**
+     * Retorna um iterador das entradas em ordem crescente de id; cada produto é decodificado quando visitado.
+     */
+    @Override
+    public Iterator<Entrada<Integer, Produto>> iterator() {
+        return new Iterator<Entrada<Integer, Produto>>() {
+
+            private int k = primeiraPosicao();
+
+            private int primeiraPosicao() {
+                if (tamanho == 0) {
+                    return 0;
+                }
+                int posicao = 1;
+                while (2 * posicao <= tamanho) {
+                    posicao = 2 * posicao;
+                }
+                return posicao;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return k != 0;
+            }
+
+            @Override
+            public Entrada<Integer, Produto> next() {
+                if (k == 0) {
+                    throw new NoSuchElementException();
+                }
+                Entrada<Integer, Produto> entrada = new Entrada<>(chaves.get(k), decodificar(k));
+                k = sucessor(k, tamanho);
+                return entrada;
+            }
+        };
+    }
+
+    @Override
+    public String percorrer() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Entrada<Integer, Produto> entrada : this) {
+            sb.append(entrada.getValor().toString()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}
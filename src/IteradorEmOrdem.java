@@ -0,0 +1,153 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterador que percorre, sem recursão, os nós de uma árvore binária de busca em ordem crescente de chave.
+ * 
+ * Apenas o caminho da raiz até o próximo nó a ser visitado fica empilhado, de modo que a memória
+ * utilizada é proporcional à altura da árvore, e não à sua quantidade de nós.
+ * Opcionalmente, a iteração pode ser limitada a um intervalo de chaves: as subárvores fora do intervalo
+ * não são visitadas, e o custo fica proporcional à altura da árvore mais a quantidade de nós do intervalo.
+ * O limite superior pode ser inclusivo ou exclusivo.
+ * @param <K> tipo da chave dos nós.
+ * @param <V> tipo do item dos nós.
+ */
+class IteradorEmOrdem<K, V> implements Iterator<No<K, V>> {
+
+	private final Deque<No<K, V>> pilha;
+	private final Comparator<K> comparador;
+	private final K de;    // menor chave do intervalo, ou null se não houver limite inferior.
+	private final K ate;   // limite superior do intervalo, ou null se não houver limite superior.
+	private final boolean ateInclusivo; // indica se a chave igual ao limite superior pertence ao intervalo.
+
+	/**
+	 * Cria o iterador para a subárvore de raiz informada.
+	 * @param raizArvore raiz da árvore ou subárvore a ser percorrida (pode ser {@code null}).
+	 */
+	IteradorEmOrdem(No<K, V> raizArvore) {
+		this(raizArvore, null, null, null);
+	}
+
+	/**
+	 * Cria o iterador para os nós da subárvore cujas chaves estão no intervalo fechado [de, ate].
+	 * @param raizArvore raiz da árvore ou subárvore a ser percorrida (pode ser {@code null}).
+	 * @param comparador comparador de chaves da árvore (obrigatório se houver algum limite).
+	 * @param de menor chave do intervalo, ou {@code null} para não limitar inferiormente.
+	 * @param ate maior chave do intervalo, ou {@code null} para não limitar superiormente.
+	 */
+	IteradorEmOrdem(No<K, V> raizArvore, Comparator<K> comparador, K de, K ate) {
+		this(raizArvore, comparador, de, ate, true);
+	}
+
+	/**
+	 * Cria o iterador para os nós da subárvore cujas chaves estão no intervalo [de, ate] ou [de, ate).
+	 * @param raizArvore raiz da árvore ou subárvore a ser percorrida (pode ser {@code null}).
+	 * @param comparador comparador de chaves da árvore (obrigatório se houver algum limite).
+	 * @param de menor chave do intervalo, ou {@code null} para não limitar inferiormente.
+	 * @param ate limite superior do intervalo, ou {@code null} para não limitar superiormente.
+	 * @param ateInclusivo indica se a chave igual a {@code ate} pertence ao intervalo.
+	 */
+	IteradorEmOrdem(No<K, V> raizArvore, Comparator<K> comparador, K de, K ate, boolean ateInclusivo) {
+		pilha = new ArrayDeque<>();
+		this.comparador = comparador;
+		this.de = de;
+		this.ate = ate;
+		this.ateInclusivo = ateInclusivo;
+		empilharEsquerda(raizArvore);
+	}
+
+	/**
+	 * Cria o iterador para os nós cujas chaves {@code String} começam pelo prefixo informado.
+	 * 
+	 * Na ordem natural de {@code String}, essas chaves formam o intervalo [p, s), em que s é o menor texto maior que
+	 * todos os iniciados por p: p sem os caracteres {@code Character.MAX_VALUE} finais e com o último caractere
+	 * restante incrementado. Se p só tiver esses caracteres, o intervalo não tem limite superior.
+	 * @param raizArvore raiz da árvore ou subárvore a ser percorrida (pode ser {@code null}).
+	 * @param comparador comparador de chaves da árvore, que deve ordenar as chaves como {@link String#compareTo}.
+	 * @param prefixo o prefixo procurado.
+	 * @return o iterador dos nós com o prefixo.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> IteradorEmOrdem<K, V> comPrefixo(No<K, V> raizArvore, Comparator<K> comparador, String prefixo) {
+		int fim = prefixo.length();
+		while (fim > 0 && prefixo.charAt(fim - 1) == Character.MAX_VALUE) {
+			fim--;
+		}
+		String limite = null;
+		if (fim > 0) {
+			limite = prefixo.substring(0, fim - 1) + (char) (prefixo.charAt(fim - 1) + 1);
+		}
+		return new IteradorEmOrdem<>(raizArvore, comparador, (K) prefixo, (K) limite, false);
+	}
+
+	/**
+	 * Cria um iterador das entradas (chave e item) da subárvore de raiz informada, em ordem crescente de chave.
+	 * @param raizArvore raiz da árvore ou subárvore a ser percorrida (pode ser {@code null}).
+	 * @return iterador das entradas.
+	 */
+	static <K, V> Iterator<Entrada<K, V>> entradas(No<K, V> raizArvore) {
+		return entradas(new IteradorEmOrdem<>(raizArvore));
+	}
+
+	/**
+	 * Cria um iterador das entradas visitadas pelo iterador de nós informado.
+	 * @param nos iterador de nós.
+	 * @return iterador das entradas.
+	 */
+	static <K, V> Iterator<Entrada<K, V>> entradas(IteradorEmOrdem<K, V> nos) {
+
+		return new Iterator<Entrada<K, V>>() {
+
+			@Override
+			public boolean hasNext() {
+				return nos.hasNext();
+			}
+
+			@Override
+			public Entrada<K, V> next() {
+				No<K, V> no = nos.next();
+				return new Entrada<>(no.getChave(), no.getItem());
+			}
+		};
+	}
+
+	/**
+	 * Empilha o nó informado e todos os seus descendentes mais à esquerda.
+	 * Nós com chave menor que o limite inferior não são empilhados, assim como suas subárvores esquerdas.
+	 */
+	private void empilharEsquerda(No<K, V> no) {
+		while (no != null) {
+			if (de != null && comparador.compare(no.getChave(), de) < 0) {
+				no = no.getDireita();
+			} else {
+				pilha.push(no);
+				no = no.getEsquerda();
+			}
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (pilha.isEmpty()) {
+			return false;
+		}
+		if (ate == null) {
+			return true;
+		}
+		int comparacao = comparador.compare(pilha.peek().getChave(), ate);
+		return (comparacao < 0) || (ateInclusivo && comparacao == 0);
+	}
+
+	@Override
+	public No<K, V> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		No<K, V> atual = pilha.pop();
+		empilharEsquerda(atual.getDireita());
+		return atual;
+	}
+}
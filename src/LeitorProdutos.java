@@ -0,0 +1,317 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Leitor de arquivos de produtos de alto desempenho.
+ * 
+ * O arquivo é lido em blocos por um {@link FileChannel} para um buffer fora do heap, e cada linha é decodificada
+ * diretamente dos bytes do buffer por um {@link DecodificadorProduto}, sem {@code Scanner} nem divisão em strings.
+ * A primeira linha do arquivo contém a quantidade de produtos; as seguintes, um produto cada, no formato
+ * aceito por {@link Produto#criarDoTexto(String)}.
+ * 
+ * Além da leitura sequencial, {@link #lerEmParalelo(String)} decodifica o arquivo em partes, concorrentemente;
+ * {@link #ler(String)} escolhe entre as duas de acordo com o tamanho do arquivo.
+ */
+public class LeitorProdutos implements Closeable {
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /** Limites do tamanho de cada parte do arquivo na leitura paralela. */
+    private static final long TAMANHO_MINIMO_PARTE = 1L << 20;
+    private static final long TAMANHO_MAXIMO_PARTE = 1L << 28;
+
+    private final FileChannel canal;
+    private final DecodificadorProduto decodificador;
+    private ByteBuffer buffer;
+    private boolean fimDoArquivo;
+    private final int quantidadeDeclarada;
+
+    /**
+     * Abre o arquivo e lê sua primeira linha, com a quantidade de produtos.
+     * @param nomeArquivo nome do arquivo de produtos.
+     * @throws IOException em caso de erro de leitura ou de cabeçalho inválido.
+     */
+    public LeitorProdutos(String nomeArquivo) throws IOException {
+        canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ);
+        decodificador = new DecodificadorProduto();
+        buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        buffer.flip();
+        fimDoArquivo = false;
+
+        try {
+            int fim = proximaLinha();
+            if (fim < 0) {
+                throw new IOException("Arquivo de produtos vazio.");
+            }
+            quantidadeDeclarada = lerQuantidade(buffer, buffer.position(), fim);
+            avancar(fim);
+        } catch (IOException | RuntimeException excecao) {
+            canal.close();
+            throw excecao;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de produtos informada na primeira linha do arquivo.
+     * @return a quantidade declarada de produtos.
+     */
+    public int quantidadeDeclarada() {
+        return quantidadeDeclarada;
+    }
+
+    /**
+     * Lê e decodifica o próximo produto do arquivo.
+     * @return o próximo produto, ou {@code null} ao fim do arquivo.
+     * @throws IOException em caso de erro de leitura.
+     */
+    public Produto proximo() throws IOException {
+        int fim = proximaLinha();
+
+        if (fim < 0) {
+            return null;
+        }
+        Produto produto = decodificador.decodificar(buffer, buffer.position(), fim);
+        avancar(fim);
+        return produto;
+    }
+
+    /**
+     * Lê a quantidade de produtos do cabeçalho, nos bytes {@code [inicio, fim)} do buffer.
+     * @throws IOException se houver caracteres que não sejam dígitos ou se a quantidade não couber num {@code int}.
+     */
+    private static int lerQuantidade(ByteBuffer dados, int inicio, int fim) throws IOException {
+        int quantidade = 0;
+
+        for (int i = inicio; i < fim; i++) {
+            byte caractere = dados.get(i);
+            if (caractere >= '0' && caractere <= '9') {
+                int digito = caractere - '0';
+                if (quantidade > (Integer.MAX_VALUE - digito) / 10) {
+                    throw new IOException("Quantidade de produtos no cabeçalho excede o limite suportado.");
+                }
+                quantidade = quantidade * 10 + digito;
+            } else if (caractere != '\r' && caractere != ' ') {
+                throw new IOException("Quantidade de produtos inválida no cabeçalho.");
+            }
+        }
+        return quantidade;
+    }
+
+    /** Posiciona o buffer no início da linha seguinte à que termina em {@code fim}. */
+    private void avancar(int fim) {
+        buffer.position(Math.min(fim + 1, buffer.limit()));
+    }
+
+    /**
+     * Localiza o fim da linha que começa na posição atual do buffer, lendo mais dados do arquivo quando necessário.
+     * Os dados ainda não processados são movidos para o início do buffer, que é ampliado se uma linha não couber nele.
+     * @return a posição da quebra de linha (ou do fim dos dados, na última linha), ou -1 se não houver mais linhas.
+     */
+    private int proximaLinha() throws IOException {
+        int busca = buffer.position();
+
+        while (true) {
+            for (; busca < buffer.limit(); busca++) {
+                if (buffer.get(busca) == '\n') {
+                    return busca;
+                }
+            }
+            if (fimDoArquivo) {
+                return (buffer.position() < buffer.limit()) ? buffer.limit() : -1;
+            }
+
+            int descartados = buffer.position();
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                ByteBuffer maior = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                buffer.flip();
+                maior.put(buffer);
+                buffer = maior;
+            }
+            if (canal.read(buffer) < 0) {
+                fimDoArquivo = true;
+            }
+            buffer.flip();
+            busca -= descartados;
+        }
+    }
+
+    /**
+     * Lê todos os produtos do arquivo. Arquivos menores que uma parte da leitura paralela, que seriam decodificados
+     * por uma única tarefa, são lidos sequencialmente, sem o mapeamento em memória e a contagem prévia das linhas;
+     * os demais, por {@link #lerEmParalelo(String)}. O resultado, inclusive nos identificadores, é o mesmo.
+     * @param nomeArquivo nome do arquivo de produtos.
+     * @return os produtos na ordem do arquivo.
+     * @throws IOException em caso de erro de leitura, de cabeçalho inválido ou se houver menos produtos que o declarado.
+     */
+    public static Produto[] ler(String nomeArquivo) throws IOException {
+        long tamanhoArquivo = Files.size(Paths.get(nomeArquivo));
+        if (tamanhoArquivo >= TAMANHO_MINIMO_PARTE) {
+            return lerEmParalelo(nomeArquivo);
+        }
+
+        try (LeitorProdutos leitor = new LeitorProdutos(nomeArquivo)) {
+            // Cada produto ocupa ao menos dois bytes (um caractere e a quebra de linha): o vetor não é alocado
+            // para uma quantidade declarada que o arquivo não pode conter.
+            if (leitor.quantidadeDeclarada() > tamanhoArquivo / 2) {
+                throw new IOException("O arquivo contém menos produtos do que o informado.");
+            }
+            Produto[] produtos = new Produto[leitor.quantidadeDeclarada()];
+            for (int i = 0; i < produtos.length; i++) {
+                produtos[i] = leitor.proximo();
+                if (produtos[i] == null) {
+                    throw new IOException("O arquivo contém menos produtos do que o informado.");
+                }
+            }
+            return produtos;
+        }
+    }
+
+    /**
+     * Lê todos os produtos do arquivo em paralelo, no {@link ForkJoinPool} comum.
+     * 
+     * O arquivo é dividido em partes que terminam em quebras de linha, e cada parte é mapeada em memória.
+     * Numa primeira etapa paralela, as linhas de cada parte são contadas; a soma acumulada dessas contagens
+     * fornece o número da primeira linha de cada parte. Em seguida, uma faixa de identificadores é reservada de uma
+     * só vez e as partes são decodificadas em paralelo, cada produto recebendo o identificador correspondente
+     * à sua linha. O resultado é idêntico, inclusive nos identificadores, ao da leitura sequencial.
+     * @param nomeArquivo nome do arquivo de produtos.
+     * @return os produtos na ordem do arquivo (e, portanto, em ordem crescente de identificador).
+     * @throws IOException em caso de erro de leitura, de cabeçalho inválido ou se houver menos produtos que o declarado.
+     */
+    public static Produto[] lerEmParalelo(String nomeArquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            ByteBuffer cabecalho = ByteBuffer.allocate((int) Math.min(64, tamanhoArquivo));
+            canal.read(cabecalho, 0);
+            int fimCabecalho = 0;
+            while (fimCabecalho < cabecalho.position() && cabecalho.get(fimCabecalho) != '\n') {
+                fimCabecalho++;
+            }
+            if (fimCabecalho == 0 || fimCabecalho > cabecalho.position()) {
+                throw new IOException("Arquivo de produtos vazio.");
+            }
+
+            int quantidade = lerQuantidade(cabecalho, 0, fimCabecalho);
+
+            List<MappedByteBuffer> partes = dividirEmPartes(canal, Math.min(fimCabecalho + 1, tamanhoArquivo), tamanhoArquivo);
+            int quantidadePartes = partes.size();
+
+            int[] linhasPorParte = new int[quantidadePartes];
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, quantidadePartes).parallel()
+                    .forEach(i -> linhasPorParte[i] = contarLinhas(partes.get(i)))).join();
+
+            int[] primeiraLinha = new int[quantidadePartes];
+            long totalLinhas = 0;
+            for (int i = 0; i < quantidadePartes; i++) {
+                primeiraLinha[i] = (int) Math.min(totalLinhas, Integer.MAX_VALUE);
+                totalLinhas += linhasPorParte[i];
+            }
+            if (totalLinhas < quantidade) {
+                throw new IOException("O arquivo contém menos produtos do que o informado.");
+            }
+
+            Produto[] produtos = new Produto[quantidade];
+            int primeiroId = Produto.reservarIdentificadores(quantidade);
+            final int total = quantidade;
+
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, quantidadePartes).parallel()
+                    .forEach(i -> decodificarParte(partes.get(i), primeiraLinha[i], total, primeiroId, produtos))).join();
+
+            return produtos;
+        }
+    }
+
+    /**
+     * Divide o intervalo {@code [inicio, fim)} do arquivo em partes terminadas em quebra de linha
+     * (exceto, possivelmente, a última), mapeando cada uma delas em memória.
+     */
+    private static List<MappedByteBuffer> dividirEmPartes(FileChannel canal, long inicio, long fim) throws IOException {
+        List<MappedByteBuffer> partes = new ArrayList<>();
+        int paralelismo = ForkJoinPool.commonPool().getParallelism();
+        long tamanhoParte = Math.max(TAMANHO_MINIMO_PARTE, Math.min(TAMANHO_MAXIMO_PARTE, (fim - inicio) / (paralelismo * 4L) + 1));
+        ByteBuffer busca = ByteBuffer.allocate(4096);
+
+        while (inicio < fim) {
+            long limite = Math.min(inicio + tamanhoParte, fim);
+
+            // Avança o limite até a próxima quebra de linha, para que nenhuma linha fique dividida entre duas partes.
+            boolean encontrado = (limite == fim);
+            while (!encontrado) {
+                busca.clear();
+                int lidos = canal.read(busca, limite);
+                if (lidos <= 0) {
+                    limite = fim;
+                    break;
+                }
+                for (int i = 0; i < lidos; i++) {
+                    if (busca.get(i) == '\n') {
+                        limite += i + 1;
+                        encontrado = true;
+                        break;
+                    }
+                }
+                if (!encontrado) {
+                    limite = Math.min(limite + lidos, fim);
+                    encontrado = (limite == fim);
+                }
+            }
+
+            partes.add(canal.map(FileChannel.MapMode.READ_ONLY, inicio, limite - inicio));
+            inicio = limite;
+        }
+        return partes;
+    }
+
+    /** Conta as linhas de uma parte: as quebras de linha, mais uma linha final sem quebra, se houver. */
+    private static int contarLinhas(ByteBuffer parte) {
+        int linhas = 0;
+        int limite = parte.limit();
+
+        for (int i = 0; i < limite; i++) {
+            if (parte.get(i) == '\n') {
+                linhas++;
+            }
+        }
+        if (limite > 0 && parte.get(limite - 1) != '\n') {
+            linhas++;
+        }
+        return linhas;
+    }
+
+    /**
+     * Decodifica as linhas de uma parte, cada uma com o identificador correspondente ao seu número de linha,
+     * armazenando os produtos nas posições correspondentes do vetor. Linhas além da quantidade declarada são ignoradas.
+     */
+    private static void decodificarParte(ByteBuffer parte, int primeiraLinha, int quantidade, int primeiroId, Produto[] produtos) {
+        DecodificadorProduto decodificador = new DecodificadorProduto();
+        int linha = primeiraLinha;
+        int inicio = 0;
+        int limite = parte.limit();
+
+        while (inicio < limite && linha < quantidade) {
+            int fim = inicio;
+            while (fim < limite && parte.get(fim) != '\n') {
+                fim++;
+            }
+            produtos[linha] = decodificador.decodificar(parte, inicio, fim, primeiroId + linha);
+            linha++;
+            inicio = fim + 1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
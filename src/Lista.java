@@ -1,4 +1,7 @@
-public class Lista<T> {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class Lista<T> implements Iterable<T> {
     
     private Celula<T> primeiro;
     private Celula<T> ultimo;
@@ -38,10 +41,70 @@ public class Lista<T> {
         return item;
     }
     
+    /**
+     * Remove a célula seguinte à célula informada, mantendo o último elemento e o tamanho da lista atualizados.
+     * Permite remover um item no ponto em que ele foi encontrado durante uma varredura pelas células,
+     * sem percorrer a lista novamente.
+     * @param anterior célula que antecede a célula a ser removida, ou {@code null} para remover a primeira célula.
+     * @return o item da célula removida.
+     * @throws IllegalStateException se não houver célula após a célula informada.
+     */
+    public T removerApos(Celula<T> anterior) {
+        if (anterior == null) {
+            anterior = primeiro;
+        }
+        
+        Celula<T> removida = anterior.getProximo();
+        if (removida == null) {
+            throw new IllegalStateException("Não há célula a ser removida!");
+        }
+        
+        anterior.setProximo(removida.getProximo());
+        
+        if (removida == ultimo) {
+            ultimo = anterior;
+        }
+        
+        tamanho--;
+        return removida.getItem();
+    }
+    
+    /**
+     * Retorna a primeira célula com item da lista (a célula cabeça não é exposta).
+     * As células seguintes são acessadas por {@link Celula#getProximo()}.
+     * @return a primeira célula da lista, ou {@code null} se a lista estiver vazia.
+     */
+    public Celula<T> primeiraCelula() {
+        return primeiro.getProximo();
+    }
+    
     public int tamanho() {
         return tamanho;
     }
     
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            
+            private Celula<T> atual = primeiro.getProximo();
+            
+            @Override
+            public boolean hasNext() {
+                return atual != null;
+            }
+            
+            @Override
+            public T next() {
+                if (atual == null) {
+                    throw new NoSuchElementException();
+                }
+                T item = atual.getItem();
+                atual = atual.getProximo();
+                return item;
+            }
+        };
+    }
+    
     @Override
     public String toString() {
         if (vazia()) {
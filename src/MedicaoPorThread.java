@@ -0,0 +1,32 @@
+/**
+ * Instrumentação de operações para estruturas acessadas por várias threads.
+ * 
+ * Cada thread enxerga apenas a medição da última operação que ela própria executou, de modo que
+ * chamadas simultâneas não sobrescrevem as medições umas das outras.
+ */
+class MedicaoPorThread implements IMedicao {
+
+    private final ThreadLocal<long[]> ultimaMedicao = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Registra a medição da operação recém-concluída pela thread atual.
+     * @param comparacoes quantidade de comparações realizadas.
+     * @param inicio instante de início da operação, em nanossegundos ({@link System#nanoTime()}).
+     * @param termino instante de término da operação, em nanossegundos.
+     */
+    void registrar(long comparacoes, long inicio, long termino) {
+        long[] medicao = ultimaMedicao.get();
+        medicao[0] = comparacoes;
+        medicao[1] = termino - inicio;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return ultimaMedicao.get()[0];
+    }
+
+    @Override
+    public double getTempo() {
+        return ultimaMedicao.get()[1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas cumulativas das operações de uma estrutura de busca: quantidade de chamadas, total de comparações
+ * e histograma de latências de cada operação.
+ *
+ * Ao contrário de {@link IMedicao}, que expõe apenas a última pesquisa, as métricas acumulam todas as chamadas de
+ * {@code pesquisar}, {@code inserir} e {@code remover}. Os contadores são {@link LongAdder}, que distribuem os incrementos
+ * simultâneos entre células independentes. A coleta é controlada pela propriedade de sistema {@code aeds.metricas}
+ * (ativa por padrão); com {@code -Daeds.metricas=false}, {@link #ATIVAS} é uma constante falsa, o JIT elimina
+ * o código de registro das estruturas e elas não alocam suas métricas ({@link IMedicao#getMetricas()} retorna
+ * {@code null}).
+ *
+ * As chamadas mais lentas que {@link EventosJfr#LIMIAR_OPERACAO_LENTA} também são gravadas como eventos do JFR,
+ * identificadas pelo nome da estrutura e pela chave.
+ */
+public class MetricasOperacoes {
+
+    /** Indica se as estruturas devem registrar métricas. Lida uma única vez, na carga da classe. */
+    public static final boolean ATIVAS = Boolean.parseBoolean(System.getProperty("aeds.metricas", "true"));
+
+    public enum Operacao {
+        PESQUISAR("pesquisar"),
+        INSERIR("inserir"),
+        REMOVER("remover");
+
+        private final String descricao;
+
+        Operacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    private static final Operacao[] OPERACOES = Operacao.values();
+
+    private final LongAdder[] chamadas = new LongAdder[OPERACOES.length];
+    private final LongAdder[] comparacoes = new LongAdder[OPERACOES.length];
+    private final HistogramaLatencia[] latencias = new HistogramaLatencia[OPERACOES.length];
+    private final String estrutura;
+    private volatile long inicioColeta;
+
+    public MetricasOperacoes() {
+        this("estrutura");
+    }
+
+    /**
+     * Cria as métricas de uma estrutura.
+     * @param estrutura nome da estrutura, usado nos eventos do JFR.
+     */
+    public MetricasOperacoes(String estrutura) {
+        this.estrutura = estrutura;
+        inicioColeta = System.nanoTime();
+        for (int i = 0; i < OPERACOES.length; i++) {
+            chamadas[i] = new LongAdder();
+            comparacoes[i] = new LongAdder();
+            latencias[i] = new HistogramaLatencia();
+        }
+    }
+
+    /**
+     * Registra uma chamada concluída (com sucesso ou não).
+     * @param operacao a operação executada.
+     * @param quantidadeComparacoes comparações realizadas na chamada.
+     * @param inicio instante de início da chamada ({@link System#nanoTime()}).
+     * @param termino instante de término da chamada.
+     */
+    public void registrar(Operacao operacao, long quantidadeComparacoes, long inicio, long termino) {
+        int indice = operacao.ordinal();
+        chamadas[indice].increment();
+        comparacoes[indice].add(quantidadeComparacoes);
+        latencias[indice].registrar(termino - inicio);
+    }
+
+    /**
+     * Registra uma chamada concluída e, se ela tiver sido lenta, grava um evento do JFR com a chave informada.
+     * @param chave a chave da chamada.
+     * @see #registrar(Operacao, long, long, long)
+     */
+    public void registrar(Operacao operacao, long quantidadeComparacoes, long inicio, long termino, Object chave) {
+        registrar(operacao, quantidadeComparacoes, inicio, termino);
+        if (termino - inicio >= EventosJfr.LIMIAR_OPERACAO_LENTA) {
+            EventosJfr.operacaoLenta(estrutura, operacao, chave, quantidadeComparacoes, termino - inicio);
+        }
+    }
+
+    /**
+     * Versão de {@link #registrar(Operacao, long, long, long, Object)} para chaves inteiras primitivas,
+     * que só converte a chave quando a chamada é lenta.
+     */
+    public void registrar(Operacao operacao, long quantidadeComparacoes, long inicio, long termino, int chave) {
+        registrar(operacao, quantidadeComparacoes, inicio, termino);
+        if (termino - inicio >= EventosJfr.LIMIAR_OPERACAO_LENTA) {
+            EventosJfr.operacaoLenta(estrutura, operacao, chave, quantidadeComparacoes, termino - inicio);
+        }
+    }
+
+    public String getEstrutura() {
+        return estrutura;
+    }
+
+    public long getChamadas(Operacao operacao) {
+        return chamadas[operacao.ordinal()].sum();
+    }
+
+    public long getComparacoes(Operacao operacao) {
+        return comparacoes[operacao.ordinal()].sum();
+    }
+
+    public HistogramaLatencia getLatencias(Operacao operacao) {
+        return latencias[operacao.ordinal()];
+    }
+
+    /**
+     * Retorna o instante ({@link System#nanoTime()}) a partir do qual as métricas foram acumuladas:
+     * a criação da estrutura ou a última chamada de {@link #zerar()}.
+     */
+    public long getInicioColeta() {
+        return inicioColeta;
+    }
+
+    /**
+     * Descarta todas as métricas acumuladas.
+     */
+    public void zerar() {
+        for (int i = 0; i < OPERACOES.length; i++) {
+            chamadas[i].reset();
+            comparacoes[i].reset();
+            latencias[i].zerar();
+        }
+        inicioColeta = System.nanoTime();
+    }
+
+    /**
+     * Retorna um resumo das métricas, com uma linha por operação: chamadas, média de comparações e
+     * latências p50, p99, p99,9 e máxima, em microssegundos.
+     */
+    public String resumo() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Operacao operacao : OPERACOES) {
+            long quantidade = getChamadas(operacao);
+            HistogramaLatencia histograma = getLatencias(operacao);
+            sb.append(String.format("%-10s chamadas: %d | comparações (média): %.2f | p50: %.3f µs | p99: %.3f µs | p99,9: %.3f µs | máx: %.3f µs%n",
+                operacao, quantidade,
+                (quantidade == 0) ? 0.0 : getComparacoes(operacao) / (double) quantidade,
+                histograma.percentil(50) / 1_000.0, histograma.percentil(99) / 1_000.0,
+                histograma.percentil(99.9) / 1_000.0, histograma.maximo() / 1_000.0));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return resumo();
+    }
+}
@@ -0,0 +1,166 @@
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * MBean que expõe, por JMX, o tamanho, a forma e os contadores de operações de um índice nomeado.
+ *
+ * O índice é obtido a cada leitura por meio de um {@link Supplier}, pois o objeto que ocupa um índice pode ser
+ * trocado (por exemplo, ao recarregar os dados); enquanto o índice não existir, os atributos valem 0.
+ * As leituras não são sincronizadas com as alterações da estrutura: durante uma carga, os valores podem estar
+ * momentaneamente inconsistentes.
+ *
+ * Altura e fator de carga vêm de um mesmo retrato de {@link IMapeamento#estatisticas()}, que percorre a estrutura
+ * inteira: o retrato é reaproveitado pelas leituras feitas em até {@link #VALIDADE_RETRATO_NANOS} (um console JMX lê
+ * todos os atributos de uma vez) e refeito depois disso ou quando o objeto do índice é trocado.
+ */
+public class MonitorIndice implements MonitorIndiceMBean {
+
+    private static final String DOMINIO = "aeds";
+    static final long VALIDADE_RETRATO_NANOS = 1_000_000_000L;
+
+    private final String nome;
+    private final Supplier<? extends IMapeamento<?, ?>> indice;
+
+    private IMapeamento<?, ?> indiceRetratado;
+    private EstatisticasEstrutura retrato;
+    private long instanteRetrato;
+
+    public MonitorIndice(String nome, Supplier<? extends IMapeamento<?, ?>> indice) {
+        this.nome = nome;
+        this.indice = indice;
+    }
+
+    /**
+     * Cria e registra no servidor de MBeans da plataforma o monitor de um índice,
+     * com o nome {@code aeds:type=Indice,name="<nome>"}.
+     * @param nome nome do índice.
+     * @param indice fornece o objeto que ocupa o índice no momento da leitura, ou {@code null}.
+     * @return o monitor registrado.
+     * @throws JMException caso o nome seja inválido ou já esteja registrado.
+     */
+    public static MonitorIndice registrar(String nome, Supplier<? extends IMapeamento<?, ?>> indice) throws JMException {
+        MonitorIndice monitor = new MonitorIndice(nome, indice);
+        ObjectName nomeObjeto = new ObjectName(DOMINIO + ":type=Indice,name=" + ObjectName.quote(nome));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, nomeObjeto);
+        return monitor;
+    }
+
+    private MetricasOperacoes metricas() {
+        IMapeamento<?, ?> atual = indice.get();
+        return (atual == null) ? null : atual.getMetricas();
+    }
+
+    /**
+     * Retorna o retrato da forma do índice atual, refazendo-o se tiver expirado ou se o índice tiver sido trocado.
+     * @param renovar indica se o retrato deve ser refeito mesmo que ainda seja válido.
+     * @return o retrato, ou {@code null} se o índice não existir.
+     */
+    private synchronized EstatisticasEstrutura retrato(boolean renovar) {
+        IMapeamento<?, ?> atual = indice.get();
+        if (atual == null) {
+            return null;
+        }
+        long agora = System.nanoTime();
+        if (renovar || atual != indiceRetratado || agora - instanteRetrato > VALIDADE_RETRATO_NANOS) {
+            retrato = atual.estatisticas();
+            indiceRetratado = atual;
+            instanteRetrato = agora;
+        }
+        return retrato;
+    }
+
+    private long chamadas(MetricasOperacoes.Operacao operacao) {
+        MetricasOperacoes metricas = metricas();
+        return (metricas == null) ? 0 : metricas.getChamadas(operacao);
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public String getEstrutura() {
+        IMapeamento<?, ?> atual = indice.get();
+        return (atual == null) ? "" : atual.getClass().getSimpleName();
+    }
+
+    @Override
+    public int getTamanho() {
+        IMapeamento<?, ?> atual = indice.get();
+        return (atual == null) ? 0 : atual.tamanho();
+    }
+
+    @Override
+    public int getAltura() {
+        EstatisticasEstrutura estatisticas = retrato(false);
+        return (estatisticas == null) ? 0 : estatisticas.getAltura();
+    }
+
+    @Override
+    public double getFatorCarga() {
+        EstatisticasEstrutura estatisticas = retrato(false);
+        return (estatisticas == null) ? 0 : estatisticas.getFatorCarga();
+    }
+
+    @Override
+    public long getChamadasPesquisar() {
+        return chamadas(MetricasOperacoes.Operacao.PESQUISAR);
+    }
+
+    @Override
+    public long getChamadasInserir() {
+        return chamadas(MetricasOperacoes.Operacao.INSERIR);
+    }
+
+    @Override
+    public long getChamadasRemover() {
+        return chamadas(MetricasOperacoes.Operacao.REMOVER);
+    }
+
+    @Override
+    public double getComparacoesMediasPesquisar() {
+        MetricasOperacoes metricas = metricas();
+        if (metricas == null) {
+            return 0;
+        }
+        long quantidade = metricas.getChamadas(MetricasOperacoes.Operacao.PESQUISAR);
+        return (quantidade == 0) ? 0 : metricas.getComparacoes(MetricasOperacoes.Operacao.PESQUISAR) / (double) quantidade;
+    }
+
+    @Override
+    public double getLatenciaP99PesquisarMicros() {
+        MetricasOperacoes metricas = metricas();
+        return (metricas == null) ? 0 : metricas.getLatencias(MetricasOperacoes.Operacao.PESQUISAR).percentil(99) / 1_000.0;
+    }
+
+    @Override
+    public double getOperacoesPorSegundo() {
+        MetricasOperacoes metricas = metricas();
+        if (metricas == null) {
+            return 0;
+        }
+        long total = 0;
+        for (MetricasOperacoes.Operacao operacao : MetricasOperacoes.Operacao.values()) {
+            total += metricas.getChamadas(operacao);
+        }
+        double segundos = (System.nanoTime() - metricas.getInicioColeta()) / 1_000_000_000.0;
+        return (segundos <= 0) ? 0 : total / segundos;
+    }
+
+    @Override
+    public void zerarMetricas() {
+        MetricasOperacoes metricas = metricas();
+        if (metricas != null) {
+            metricas.zerar();
+        }
+    }
+
+    @Override
+    public String estatisticasJson() {
+        EstatisticasEstrutura estatisticas = retrato(true);
+        return (estatisticas == null) ? "{}" : estatisticas.comoJson();
+    }
+}
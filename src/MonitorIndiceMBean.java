@@ -0,0 +1,30 @@
+/**
+ * Interface de gerenciamento (JMX) de um índice nomeado, implementada por {@link MonitorIndice}.
+ * Os contadores são cumulativos desde a criação da estrutura ou desde {@link #zerarMetricas()}.
+ */
+public interface MonitorIndiceMBean {
+
+    public String getNome();
+    public String getEstrutura();
+    public int getTamanho();
+
+    /** Altura da árvore, ou 0 para estruturas que não são árvores. Vem de um retrato da estrutura renovado a cada segundo. */
+    public int getAltura();
+
+    /** Fator de carga da tabela hash, ou 0 para estruturas que não são tabelas. Vem do mesmo retrato da altura. */
+    public double getFatorCarga();
+
+    public long getChamadasPesquisar();
+    public long getChamadasInserir();
+    public long getChamadasRemover();
+    public double getComparacoesMediasPesquisar();
+    public double getLatenciaP99PesquisarMicros();
+
+    /** Total de chamadas por segundo desde o início da coleta das métricas. */
+    public double getOperacoesPorSegundo();
+
+    public void zerarMetricas();
+
+    /** Retorna as estatísticas completas da estrutura, em JSON, calculadas no momento da chamada. */
+    public String estatisticasJson();
+}
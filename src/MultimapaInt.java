@@ -0,0 +1,407 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Multimapa de chaves inteiras primitivas: cada chave está associada a um grupo de valores.
+ *
+ * Assim como em {@link TabelaHashInt}, as chaves ficam num vetor {@code int[]} com endereçamento aberto, sondagem
+ * linear e remoção por deslocamento para trás. Os valores de cada chave ficam num vetor compacto, guardado na mesma
+ * posição de um vetor paralelo de grupos, com a quantidade de valores num terceiro vetor; não há células encadeadas
+ * por valor. A operação {@link #adicionar(int, Object)} localiza a posição da chave uma única vez e, na mesma sondagem,
+ * cria o grupo se a chave ainda não existir e anexa o valor. Nas métricas de {@link #getMetricas()}, cada chamada de
+ * {@code adicionar} conta como uma inserção.
+ *
+ * Para compatibilidade com {@link IMapeamento}, os grupos são expostos como {@link Lista}, montada a cada consulta.
+ * @param <V> tipo dos valores armazenados.
+ */
+public class MultimapaInt<V> implements IMapeamento<Integer, Lista<V>> {
+
+    private static final double FATOR_CARGA_PADRAO = 0.5;
+    private static final int CAPACIDADE_PADRAO = 128;
+    private static final int CAPACIDADE_INICIAL_GRUPO = 2;
+
+    private int[] chaves;
+    /** Valores de cada posição; {@code null} indica posição livre. */
+    private Object[][] grupos;
+    private int[] quantidades;
+    private int mascara;
+    private int tamanho;
+    private int totalValores;
+    private int limiteRedimensionamento;
+    private final double fatorCargaMaximo;
+
+    private long comparacoes;
+    private int sondagens; // comparações da última chamada a localizar.
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("MultimapaInt") : null;
+
+    /**
+     * Construtor da classe.
+     * @param capacidade capacidade inicial desejada, em chaves; é arredondada para a próxima potência de 2.
+     * @param fatorCargaMaximo fator de carga máximo permitido (maior que 0 e menor que 1).
+     * @throws IllegalArgumentException em caso de capacidade ou fator de carga inválidos.
+     */
+    public MultimapaInt(int capacidade, double fatorCargaMaximo) {
+        if (capacidade < 1 || capacidade > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidade inválida para o multimapa.");
+        }
+        if (!(fatorCargaMaximo > 0.0 && fatorCargaMaximo < 1.0)) {
+            throw new IllegalArgumentException("O fator de carga máximo deve estar entre 0 e 1.");
+        }
+        this.fatorCargaMaximo = fatorCargaMaximo;
+        alocar(Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1);
+        totalValores = 0;
+    }
+
+    public MultimapaInt(int capacidade) {
+        this(capacidade, FATOR_CARGA_PADRAO);
+    }
+
+    public MultimapaInt() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new int[capacidade];
+        grupos = new Object[capacidade][];
+        quantidades = new int[capacidade];
+        mascara = capacidade - 1;
+        limiteRedimensionamento = (int) (capacidade * fatorCargaMaximo);
+        tamanho = 0;
+    }
+
+    /**
+     * Espalha os bits da chave antes de aplicar a máscara, pois identificadores sequenciais
+     * ocupariam posições consecutivas e formariam longas sequências de sondagem.
+     */
+    private int posicaoInicial(int chave) {
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    /**
+     * Localiza a posição da chave, ou a posição livre em que ela seria inserida.
+     * A quantidade de comparações desta localização fica em {@code sondagens}.
+     */
+    private int localizar(int chave) {
+        int posicao = posicaoInicial(chave);
+        sondagens = 0;
+
+        while (grupos[posicao] != null) {
+            sondagens++;
+            if (chaves[posicao] == chave) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    /**
+     * Associa mais um valor à chave informada, criando o grupo da chave se ela ainda não existir.
+     * A chave é localizada com uma única sondagem, sem pesquisa prévia nem reinserção do grupo.
+     * @param chave a chave.
+     * @param valor o valor a ser associado à chave.
+     * @return a quantidade de valores associados à chave após a operação.
+     */
+    public int adicionar(int chave, V valor) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            int posicao = localizar(chave);
+            Object[] grupo = grupos[posicao];
+
+            if (grupo == null) {
+                grupo = new Object[CAPACIDADE_INICIAL_GRUPO];
+                chaves[posicao] = chave;
+                grupos[posicao] = grupo;
+                tamanho++;
+            } else if (quantidades[posicao] == grupo.length) {
+                grupo = Arrays.copyOf(grupo, grupo.length * 2);
+                grupos[posicao] = grupo;
+            }
+
+            int quantidade = quantidades[posicao];
+            grupo[quantidade] = valor;
+            quantidades[posicao] = quantidade + 1;
+            totalValores++;
+
+            if (tamanho > limiteRedimensionamento) {
+                redimensionar();
+            }
+            return quantidade + 1;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, sondagens, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de valores associados à chave informada.
+     * @param chave a chave procurada.
+     * @return a quantidade de valores, ou 0 se a chave não estiver no multimapa.
+     */
+    public int quantidade(int chave) {
+        int posicao = localizar(chave);
+        return (grupos[posicao] == null) ? 0 : quantidades[posicao];
+    }
+
+    /**
+     * Substitui os valores associados à chave pelos itens da lista informada.
+     * @param chave a chave.
+     * @param valores os novos valores da chave.
+     * @return a quantidade de chaves do multimapa.
+     */
+    public int inserir(int chave, Lista<V> valores) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        sondagens = 0;
+
+        try {
+            Object[] grupo = new Object[Math.max(CAPACIDADE_INICIAL_GRUPO, valores.tamanho())];
+            int quantidade = 0;
+            for (V valor : valores) {
+                grupo[quantidade++] = valor;
+            }
+
+            int posicao = localizar(chave);
+            if (grupos[posicao] == null) {
+                chaves[posicao] = chave;
+                tamanho++;
+            } else {
+                totalValores -= quantidades[posicao];
+            }
+            grupos[posicao] = grupo;
+            quantidades[posicao] = quantidade;
+            totalValores += quantidade;
+
+            if (tamanho > limiteRedimensionamento) {
+                redimensionar();
+            }
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, sondagens, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public int inserir(Integer chave, Lista<V> valores) {
+        return inserir(chave.intValue(), valores);
+    }
+
+    /**
+     * Pesquisa os valores associados à chave informada.
+     * @param chave a chave procurada.
+     * @return uma lista com os valores associados à chave, na ordem em que foram adicionados,
+     *         ou {@code null} caso a chave não esteja no multimapa.
+     */
+    public Lista<V> pesquisar(int chave) {
+        inicio = System.nanoTime();
+
+        int posicao = localizar(chave);
+        comparacoes = sondagens;
+        Lista<V> valores = (grupos[posicao] == null) ? null : comoLista(posicao);
+
+        termino = System.nanoTime();
+        if (MetricasOperacoes.ATIVAS)
+            metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, termino, chave);
+        return valores;
+    }
+
+    @Override
+    public Lista<V> pesquisar(Integer chave) {
+        return pesquisar(chave.intValue());
+    }
+
+    /**
+     * Remove a chave informada e todos os seus valores.
+     * @param chave a chave a ser removida.
+     * @return uma lista com os valores que estavam associados à chave.
+     * @throws NoSuchElementException caso a chave não esteja no multimapa.
+     */
+    public Lista<V> remover(int chave) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+
+        try {
+            int posicao = localizar(chave);
+
+            if (grupos[posicao] == null) {
+                throw new NoSuchElementException("Chave não encontrada!");
+            }
+
+            Lista<V> valores = comoLista(posicao);
+            totalValores -= quantidades[posicao];
+            deslocarParaTras(posicao);
+            tamanho--;
+            return valores;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, sondagens, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+
+    @Override
+    public Lista<V> remover(Integer chave) {
+        return remover(chave.intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Lista<V> comoLista(int posicao) {
+        Lista<V> valores = new Lista<>();
+        Object[] grupo = grupos[posicao];
+
+        for (int i = 0; i < quantidades[posicao]; i++) {
+            valores.inserir((V) grupo[i]);
+        }
+        return valores;
+    }
+
+    /**
+     * Libera a posição informada, trazendo para ela os itens seguintes da sequência de sondagem
+     * que ficariam inacessíveis com a abertura do espaço vazio.
+     * @param livre a posição cujo grupo foi removido.
+     */
+    private void deslocarParaTras(int livre) {
+        int atual = (livre + 1) & mascara;
+
+        while (grupos[atual] != null) {
+            int ideal = posicaoInicial(chaves[atual]);
+            // O item pode ocupar a posição livre se ela estiver entre sua posição ideal e sua posição atual (circularmente).
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                chaves[livre] = chaves[atual];
+                grupos[livre] = grupos[atual];
+                quantidades[livre] = quantidades[atual];
+                livre = atual;
+            }
+            atual = (atual + 1) & mascara;
+        }
+
+        grupos[livre] = null;
+        quantidades[livre] = 0;
+    }
+
+    private void redimensionar() {
+        int[] chavesAntigas = chaves;
+        Object[][] gruposAntigos = grupos;
+        int[] quantidadesAntigas = quantidades;
+
+        alocar(chavesAntigas.length << 1);
+
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (gruposAntigos[i] != null) {
+                int posicao = posicaoInicial(chavesAntigas[i]);
+                while (grupos[posicao] != null) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                chaves[posicao] = chavesAntigas[i];
+                grupos[posicao] = gruposAntigos[i];
+                quantidades[posicao] = quantidadesAntigas[i];
+                tamanho++;
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de chaves do multimapa.
+     */
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna a quantidade total de valores, somando os grupos de todas as chaves.
+     * @return a quantidade de pares (chave, valor).
+     */
+    public int totalValores() {
+        return totalValores;
+    }
+
+    /**
+     * Retorna a capacidade atual do multimapa (quantidade de posições).
+     * @return a capacidade.
+     */
+    public int capacidade() {
+        return chaves.length;
+    }
+
+    /**
+     * Retorna as estatísticas de ocupação do multimapa, com as sequências contínuas de posições ocupadas como cadeias,
+     * assim como em {@link TabelaHashInt#estatisticas()}.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorTabela coletor = new EstatisticasEstrutura.ColetorTabela();
+        coletor.registrarSequencias(i -> grupos[i] != null, chaves.length);
+        return coletor.concluir("MultimapaInt", tamanho, chaves.length);
+    }
+
+    @Override
+    public String percorrer() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < chaves.length; i++) {
+            if (grupos[i] != null) {
+                sb.append(chaves[i]).append(" -> ").append(comoLista(i)).append("\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Retorna um iterador das entradas do multimapa, na ordem das posições.
+     * O multimapa não deve ser modificado durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<Integer, Lista<V>>> iterator() {
+        return new Iterator<Entrada<Integer, Lista<V>>>() {
+
+            private int posicao = avancar(0);
+
+            private int avancar(int de) {
+                while (de < chaves.length && grupos[de] == null) {
+                    de++;
+                }
+                return de;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return posicao < chaves.length;
+            }
+
+            @Override
+            public Entrada<Integer, Lista<V>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entrada<Integer, Lista<V>> entrada = new Entrada<>(chaves[posicao], comoLista(posicao));
+                posicao = avancar(posicao + 1);
+                return entrada;
+            }
+        };
+    }
+
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}
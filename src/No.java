@@ -5,6 +5,7 @@ public class No<K, V> {
 	private No<K, V> direita;    // referência ao nodo armazenado, na árvore, à direita do nó em questão.
 	private No<K, V> esquerda;   // referência ao nodo armazenado, na árvore, à esquerda do nó em questão.
 	private int altura;
+	private int tamanhoSubarvore; // quantidade de nós da subárvore com raiz neste nó (mantida apenas pela AVL).
 	
 	public No(K chave, V item) {
 		setChave(chave);
@@ -12,6 +13,7 @@ public class No<K, V> {
 	    setDireita(null);
 	    setEsquerda(null);
 	    altura = 0;
+	    tamanhoSubarvore = 1;
 	}
 
 	public V getItem() {
@@ -71,6 +73,25 @@ public class No<K, V> {
 			altura = alturaDireita + 1;
 	}
 	
+	private int getTamanhoSubarvore(No<K, V> no) {
+		
+		if (no != null)
+			return no.getTamanhoSubarvore();
+		else
+			return 0;
+	}
+	
+	public int getTamanhoSubarvore() {
+		return this.tamanhoSubarvore;
+	}
+	
+	/**
+	 * Recalcula a quantidade de nós da subárvore com raiz neste nó, a partir das quantidades já atualizadas dos filhos.
+	 */
+	public void setTamanhoSubarvore() {
+		tamanhoSubarvore = getTamanhoSubarvore(esquerda) + getTamanhoSubarvore(direita) + 1;
+	}
+	
 	public int getFatorBalanceamento() {
 		
 		int alturaEsquerda, alturaDireita;
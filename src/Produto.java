@@ -1,11 +1,13 @@
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Produto implements Comparable<Produto>{
 	
 	private static final double MARGEM_PADRAO = 0.2;
-	private static int ultimoID = 10_000;
+	private static final AtomicInteger ultimoID = new AtomicInteger(10_000);
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 	
 	protected int idProduto;
 	protected String descricao;
@@ -21,12 +23,20 @@ public abstract class Produto implements Comparable<Produto>{
      */
 	private void init(String desc, double precoCusto, double margemLucro) {
 		
+		definirDados(desc, precoCusto, margemLucro);
+		idProduto = ultimoID.getAndIncrement();
+	}
+	
+	/**
+	 * Valida e armazena os dados do produto, sem atribuir seu identificador.
+	 * @throws IllegalArgumentException em caso de valores inválidos para os dados do produto.
+	 */
+	private void definirDados(String desc, double precoCusto, double margemLucro) {
+		
 		if ((desc.length() >= 3) && (precoCusto > 0.0) && (margemLucro > 0.0)) {
 			descricao = desc;
 			this.precoCusto = precoCusto;
 			this.margemLucro = margemLucro;
-			idProduto = ultimoID++;
-
 		} else {
 			throw new IllegalArgumentException("Valores inválidos para os dados do produto.");
 		}
@@ -54,6 +64,45 @@ public abstract class Produto implements Comparable<Produto>{
 		init(desc, precoCusto, MARGEM_PADRAO);
 	}
 	
+	/**
+     * Construtor com identificador definido externamente, usado quando os identificadores são reservados
+     * previamente por {@link #reservarIdentificadores(int)} (como na carga paralela). Não avança o contador de identificadores.
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro (mínimo 0.01)
+     */
+	protected Produto(int idProduto, String desc, double precoCusto, double margemLucro) {
+		definirDados(desc, precoCusto, margemLucro);
+		this.idProduto = idProduto;
+	}
+	
+	/**
+	 * Reserva, de forma atômica, uma faixa contínua de identificadores de produtos.
+	 * @param quantidade quantidade de identificadores a reservar.
+	 * @return o primeiro identificador da faixa reservada.
+	 */
+	static int reservarIdentificadores(int quantidade) {
+		return ultimoID.getAndAdd(quantidade);
+	}
+	
+	/**
+	 * Retorna o identificador que será atribuído ao próximo produto criado.
+	 * @return o próximo identificador.
+	 */
+	static int proximoIdentificador() {
+		return ultimoID.get();
+	}
+	
+	/**
+	 * Garante que os próximos identificadores atribuídos sejam maiores ou iguais ao valor informado,
+	 * como após a restauração de produtos com identificadores já definidos.
+	 * @param proximo menor valor permitido para o próximo identificador.
+	 */
+	static void avancarIdentificadores(int proximo) {
+		ultimoID.accumulateAndGet(proximo, Math::max);
+	}
+	
 	 /**
      * Retorna o valor de venda do produto, considerando seu preço de custo e margem de lucro.
      * @return Valor de venda do produto (double, positivo)
@@ -121,8 +170,7 @@ public abstract class Produto implements Comparable<Produto>{
     	precoCusto = Double.parseDouble(dadosLinha[2].replace(",", "."));
         margemLucro = Double.parseDouble(dadosLinha[3].replace(",", "."));
         if (tipo == 2) {
-    		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    		dataDeValidade = LocalDate.parse(dadosLinha[4], formatoData);
+    		dataDeValidade = LocalDate.parse(dadosLinha[4], FORMATO_DATA);
     		produto = new ProdutoPerecivel(descricao, precoCusto, margemLucro, dataDeValidade);
     	} else {
     		produto = new ProdutoNaoPerecivel(descricao, precoCusto, margemLucro);
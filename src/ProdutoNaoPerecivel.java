@@ -20,6 +20,18 @@ public class ProdutoNaoPerecivel extends Produto{
 	public ProdutoNaoPerecivel(String desc, double precoCusto) {
 		super(desc, precoCusto);
 	}
+	
+	/**
+     * Construtor com identificador já reservado (ver {@link Produto#reservarIdentificadores(int)}).
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço de compra do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro para a venda (mínimo 0.01)
+     * @throws IllegalArgumentException em caso dos limites acima serem desrespeitados.
+     */
+	ProdutoNaoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro) {
+		super(idProduto, desc, precoCusto, margemLucro);
+	}
 
 	/**
      * Retorna o valor de venda do produto, considerando seu preço de custo e margem de lucro
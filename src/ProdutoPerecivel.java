@@ -9,6 +9,9 @@ public class ProdutoPerecivel extends Produto{
 	/** Prazo, em dias, para conceder o desconto por proximidade da validade */
 	private static final int PRAZO_DESCONTO = 7;
 	
+	/** Formato de exibição e gravação da data de validade: dd/MM/yyyy */
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
 	/** Data de validade do produto. Não pode ser anterior à data da criação ou venda do produto. */
 	private LocalDate dataDeValidade;
 	
@@ -48,6 +51,49 @@ public class ProdutoPerecivel extends Produto{
 		dataDeValidade = validade;
 	}
 
+	/**
+     * Construtor com identificador já reservado (ver {@link Produto#reservarIdentificadores(int)}).
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço de compra do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro para a venda (mínimo 0.01)
+     * @param validade Data de validade do produto, que deve ser posterior à data atual.
+     * @throws IllegalArgumentException em caso dos limites acima serem desrespeitados.
+     */
+	ProdutoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro, LocalDate validade) {
+		
+		this(idProduto, desc, precoCusto, margemLucro, validade, true);
+	}
+
+	private ProdutoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro, LocalDate validade,
+	                         boolean validarData) {
+		
+		super(idProduto, desc, precoCusto, margemLucro);
+		
+		if (validarData && validade.isBefore(LocalDate.now())) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		dataDeValidade = validade;
+	}
+
+	/**
+	 * Restaura um produto gravado anteriormente (por exemplo, num snapshot), com a validade gravada.
+	 * Ao contrário dos construtores, aceita datas de validade já vencidas: o produto pode ter vencido depois de gravado.
+	 * Os demais dados continuam sendo validados.
+	 * @throws IllegalArgumentException em caso de descrição, preço ou margem inválidos.
+	 */
+	static ProdutoPerecivel restaurar(int idProduto, String desc, double precoCusto, double margemLucro, LocalDate validade) {
+		return new ProdutoPerecivel(idProduto, desc, precoCusto, margemLucro, validade, false);
+	}
+
+	/**
+	 * Retorna a data de validade do produto.
+	 * @return data de validade
+	 */
+	LocalDate getDataDeValidade() {
+		return dataDeValidade;
+	}
+
 	/**
      * Retorna o valor de venda do produto, considerando seu preço de custo, margem de lucro e
      * dias de validade. Se o prazo de validade estiver a menos de 7 dias, será concedido desconto de 25%.
@@ -80,10 +126,8 @@ public class ProdutoPerecivel extends Produto{
     @Override
     public String toString(){
     	
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        
         String dados = super.toString();
-        dados += "\nVálido até " + formato.format(dataDeValidade);
+        dados += "\nVálido até " + FORMATO_DATA.format(dataDeValidade);
         
         return dados;
     }
@@ -98,8 +142,7 @@ public class ProdutoPerecivel extends Produto{
     
 		String precoCustoFormatado = String.format("%.2f", precoCusto).replaceAll(",", ".");
 		String margemLucroFormatada = String.format("%.2f", margemLucro).replaceAll(",", ".");
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		String dataFormatada = formatoData.format(dataDeValidade);
+		String dataFormatada = FORMATO_DATA.format(dataDeValidade);
 		
 		return String.format("2;%s;%s;%s;%s", descricao, precoCustoFormatado, margemLucroFormatada, dataFormatada);
 		
@@ -0,0 +1,446 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Snapshot binário e versionado do catálogo: produtos por id, fornecedores por documento e
+ * o índice de fornecedores de cada produto.
+ * 
+ * O arquivo é gravado por um {@link FileChannel} e lido por mapeamento em memória. As árvores são gravadas em
+ * pré-ordem, cada nó acompanhado de indicadores de seus filhos, de modo que a forma exata de cada árvore é restaurada
+ * sem comparações nem rebalanceamentos; a quantidade de nós de cada árvore é gravada antes de seus nós.
+ * Como as associações entre produtos e fornecedores também são gravadas, a restauração reproduz exatamente
+ * as mesmas associações, sem novo sorteio.
+ * 
+ * Formato (inteiros em big-endian; textos como tamanho em bytes seguido dos bytes em UTF-8):
+ * <pre>
+ * cabeçalho:    int ASSINATURA, int VERSAO, int próximo id de produto, int próximo documento de fornecedor
+ * produtos:     int n, n × (byte filhos, int id, byte tipo, texto descrição, double preço, double margem, [long validade])
+ * fornecedores: int n, n × (byte filhos, int documento, texto nome, int k, k × int id de produto)
+ * índice:       int n, n × (int id de produto, int k, k × int documento)
+ * </pre>
+ * A validade de produtos perecíveis é gravada em dias desde 01/01/1970.
+ */
+public class SnapshotCatalogo {
+
+    private static final int ASSINATURA = 0x41454453; // "AEDS"
+    private static final int VERSAO = 1;
+
+    private static final byte FILHO_ESQUERDO = 1;
+    private static final byte FILHO_DIREITO = 2;
+    /** Menor registro de produto: filhos, id, tipo, tamanho da descrição, preço e margem. */
+    private static final int BYTES_MINIMOS_PRODUTO = 1 + 4 + 1 + 4 + 8 + 8;
+    /** Menor registro de fornecedor: filhos, documento, tamanho do nome e quantidade de produtos. */
+    private static final int BYTES_MINIMOS_FORNECEDOR = 1 + 4 + 4 + 4;
+
+    private final ABB<Integer, Produto> produtosPorId;
+    private final AVL<Integer, Fornecedor> fornecedoresPorDocumento;
+    private final MultimapaInt<Fornecedor> produtosFornecedores;
+
+    private SnapshotCatalogo(ABB<Integer, Produto> produtosPorId, AVL<Integer, Fornecedor> fornecedoresPorDocumento,
+                             MultimapaInt<Fornecedor> produtosFornecedores) {
+        this.produtosPorId = produtosPorId;
+        this.fornecedoresPorDocumento = fornecedoresPorDocumento;
+        this.produtosFornecedores = produtosFornecedores;
+    }
+
+    public ABB<Integer, Produto> getProdutosPorId() {
+        return produtosPorId;
+    }
+
+    public AVL<Integer, Fornecedor> getFornecedoresPorDocumento() {
+        return fornecedoresPorDocumento;
+    }
+
+    public MultimapaInt<Fornecedor> getProdutosFornecedores() {
+        return produtosFornecedores;
+    }
+
+    /**
+     * Grava o snapshot do catálogo. Estruturas {@code null} são gravadas como vazias.
+     * @param nomeArquivo nome do arquivo a ser criado ou substituído.
+     * @param produtosPorId produtos indexados por id.
+     * @param fornecedoresPorDocumento fornecedores indexados por documento.
+     * @param produtosFornecedores fornecedores de cada produto, indexados pelo id do produto.
+     * @throws IOException em caso de erro de gravação.
+     */
+    public static void salvar(String nomeArquivo, ABB<Integer, Produto> produtosPorId,
+                              AVL<Integer, Fornecedor> fornecedoresPorDocumento,
+                              MultimapaInt<Fornecedor> produtosFornecedores) throws IOException {
+
+        try (Escritor escritor = new Escritor(nomeArquivo)) {
+            escritor.inteiro(ASSINATURA);
+            escritor.inteiro(VERSAO);
+            escritor.inteiro(Produto.proximoIdentificador());
+            escritor.inteiro(Fornecedor.proximoDocumento());
+
+            // Produtos
+            escritor.inteiro((produtosPorId != null) ? produtosPorId.tamanho() : 0);
+            Deque<No<Integer, Produto>> pilhaProdutos = new ArrayDeque<>();
+            if (produtosPorId != null && produtosPorId.getRaiz() != null) {
+                pilhaProdutos.push(produtosPorId.getRaiz());
+            }
+            while (!pilhaProdutos.isEmpty()) {
+                No<Integer, Produto> no = empilharFilhos(pilhaProdutos, escritor);
+                gravarProduto(escritor, no.getItem());
+            }
+
+            // Fornecedores
+            escritor.inteiro((fornecedoresPorDocumento != null) ? fornecedoresPorDocumento.tamanho() : 0);
+            Deque<No<Integer, Fornecedor>> pilhaFornecedores = new ArrayDeque<>();
+            if (fornecedoresPorDocumento != null && fornecedoresPorDocumento.getRaiz() != null) {
+                pilhaFornecedores.push(fornecedoresPorDocumento.getRaiz());
+            }
+            while (!pilhaFornecedores.isEmpty()) {
+                No<Integer, Fornecedor> no = empilharFilhos(pilhaFornecedores, escritor);
+                Fornecedor fornecedor = no.getItem();
+                ConjuntoAdaptativo<Produto> produtosVendidos = fornecedor.getProdutosVendidos();
+
+                escritor.inteiro(fornecedor.getDocumento());
+                escritor.texto(fornecedor.getNome());
+                escritor.inteiro(produtosVendidos.tamanho());
+                for (Entrada<Integer, Produto> entrada : produtosVendidos) {
+                    escritor.inteiro(entrada.getChave());
+                }
+            }
+
+            // Índice de fornecedores por produto
+            escritor.inteiro((produtosFornecedores != null) ? produtosFornecedores.tamanho() : 0);
+            if (produtosFornecedores != null) {
+                for (Entrada<Integer, Lista<Fornecedor>> entrada : produtosFornecedores) {
+                    Lista<Fornecedor> fornecedores = entrada.getValor();
+                    escritor.inteiro(entrada.getChave());
+                    escritor.inteiro(fornecedores.tamanho());
+                    for (Fornecedor fornecedor : fornecedores) {
+                        escritor.inteiro(fornecedor.getDocumento());
+                    }
+                }
+            }
+            escritor.concluir();
+        }
+    }
+
+    /**
+     * Retira o próximo nó da pilha da pré-ordem, grava os indicadores de seus filhos e os empilha (direito antes do esquerdo).
+     */
+    private static <V> No<Integer, V> empilharFilhos(Deque<No<Integer, V>> pilha, Escritor escritor) throws IOException {
+        No<Integer, V> no = pilha.pop();
+        byte filhos = 0;
+
+        if (no.getDireita() != null) {
+            filhos |= FILHO_DIREITO;
+            pilha.push(no.getDireita());
+        }
+        if (no.getEsquerda() != null) {
+            filhos |= FILHO_ESQUERDO;
+            pilha.push(no.getEsquerda());
+        }
+        escritor.octeto(filhos);
+        return no;
+    }
+
+    /**
+     * Grava os dados de um produto: id, tipo, descrição, preço de custo, margem de lucro e, se perecível, validade.
+     */
+    static void gravarProduto(Escritor escritor, Produto produto) throws IOException {
+        escritor.inteiro(produto.idProduto);
+        if (produto instanceof ProdutoPerecivel) {
+            escritor.octeto((byte) 2);
+        } else {
+            escritor.octeto((byte) 1);
+        }
+        escritor.texto(produto.descricao);
+        escritor.decimal(produto.precoCusto);
+        escritor.decimal(produto.margemLucro);
+        if (produto instanceof ProdutoPerecivel) {
+            escritor.longo(((ProdutoPerecivel) produto).getDataDeValidade().toEpochDay());
+        }
+    }
+
+    /**
+     * Carrega um snapshot gravado por {@link #salvar}, mapeando o arquivo em memória.
+     * Os contadores de ids de produtos e de documentos de fornecedores são avançados para além dos restaurados.
+     * @param nomeArquivo nome do arquivo do snapshot.
+     * @return o snapshot carregado, com as estruturas restauradas.
+     * @throws IOException em caso de erro de leitura, arquivo inválido ou versão não suportada.
+     */
+    public static SnapshotCatalogo carregar(String nomeArquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ)) {
+            MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+
+            if (dados.remaining() < 16 || dados.getInt() != ASSINATURA) {
+                throw new IOException("Arquivo de snapshot inválido.");
+            }
+            int versao = dados.getInt();
+            if (versao != VERSAO) {
+                throw new IOException("Versão de snapshot não suportada: " + versao);
+            }
+            int proximoIdentificador = dados.getInt();
+            int proximoDocumento = dados.getInt();
+
+            // Produtos
+            int quantidadeProdutos = lerQuantidade(dados, BYTES_MINIMOS_PRODUTO);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            No<Integer, Produto>[] nosProdutos = (No<Integer, Produto>[]) new No[quantidadeProdutos];
+            byte[] filhosProdutos = new byte[quantidadeProdutos];
+            TabelaHashInt<Produto> produtosPorIdTemporario = new TabelaHashInt<>(quantidadeProdutos * 2 + 1);
+            for (int i = 0; i < quantidadeProdutos; i++) {
+                filhosProdutos[i] = dados.get();
+                Produto produto = lerProduto(dados);
+                nosProdutos[i] = new No<>(produto.idProduto, produto);
+                produtosPorIdTemporario.inserir(produto.idProduto, produto);
+            }
+            ABB<Integer, Produto> produtos = new ABB<>();
+            produtos.restaurar(montarPreOrdem(nosProdutos, filhosProdutos), quantidadeProdutos);
+
+            // Fornecedores
+            int quantidadeFornecedores = lerQuantidade(dados, BYTES_MINIMOS_FORNECEDOR);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            No<Integer, Fornecedor>[] nosFornecedores = (No<Integer, Fornecedor>[]) new No[quantidadeFornecedores];
+            byte[] filhosFornecedores = new byte[quantidadeFornecedores];
+            TabelaHashInt<Fornecedor> fornecedoresTemporario = new TabelaHashInt<>(quantidadeFornecedores * 2 + 1);
+            for (int i = 0; i < quantidadeFornecedores; i++) {
+                filhosFornecedores[i] = dados.get();
+                int documento = dados.getInt();
+                Fornecedor fornecedor = new Fornecedor(documento, lerTexto(dados));
+                int quantidadeVendidos = lerQuantidade(dados, 4);
+                for (int j = 0; j < quantidadeVendidos; j++) {
+                    fornecedor.adicionarProduto(localizar(produtosPorIdTemporario, dados.getInt(), "produto"));
+                }
+                nosFornecedores[i] = new No<>(documento, fornecedor);
+                fornecedoresTemporario.inserir(documento, fornecedor);
+            }
+            AVL<Integer, Fornecedor> fornecedores = new AVL<>();
+            fornecedores.restaurar(montarPreOrdem(nosFornecedores, filhosFornecedores), quantidadeFornecedores);
+
+            // Índice de fornecedores por produto
+            int quantidadeIndice = lerQuantidade(dados, 8);
+            MultimapaInt<Fornecedor> indice = new MultimapaInt<>(Math.max(10, quantidadeIndice * 2));
+            for (int i = 0; i < quantidadeIndice; i++) {
+                int idProduto = dados.getInt();
+                int quantidadeFornecedoresProduto = lerQuantidade(dados, 4);
+                for (int j = 0; j < quantidadeFornecedoresProduto; j++) {
+                    indice.adicionar(idProduto, localizar(fornecedoresTemporario, dados.getInt(), "fornecedor"));
+                }
+            }
+
+            Produto.avancarIdentificadores(proximoIdentificador);
+            Fornecedor.avancarDocumentos(proximoDocumento);
+            return new SnapshotCatalogo(produtos, fornecedores, indice);
+
+        } catch (java.nio.BufferUnderflowException | IllegalArgumentException excecao) {
+            throw new IOException("Arquivo de snapshot corrompido ou incompleto.", excecao);
+        }
+    }
+
+    /**
+     * Lê uma quantidade de itens e verifica se ela é compatível com os bytes restantes do arquivo, antes que
+     * qualquer vetor seja alocado com ela.
+     * @param bytesPorItem menor quantidade de bytes que cada item ocupa no arquivo.
+     * @throws IOException caso a quantidade seja negativa ou os itens não caibam no restante do arquivo.
+     */
+    private static int lerQuantidade(ByteBuffer dados, int bytesPorItem) throws IOException {
+        int quantidade = dados.getInt();
+        if (quantidade < 0 || (long) quantidade * bytesPorItem > dados.remaining()) {
+            throw new IOException("Arquivo de snapshot corrompido ou incompleto.");
+        }
+        return quantidade;
+    }
+
+    private static <T> T localizar(TabelaHashInt<T> tabela, int chave, String descricao) throws IOException {
+        T item = tabela.pesquisar(chave);
+        if (item == null) {
+            throw new IOException("Snapshot referencia " + descricao + " inexistente: " + chave);
+        }
+        return item;
+    }
+
+    /**
+     * Religa os nós lidos em pré-ordem, usando os indicadores de filhos de cada nó.
+     * Em seguida, percorre os nós na ordem inversa (todo nó aparece depois de seus descendentes) recalculando
+     * alturas e quantidades de nós das subárvores.
+     * @return a raiz da árvore, ou {@code null} se não houver nós.
+     */
+    private static <V> No<Integer, V> montarPreOrdem(No<Integer, V>[] nos, byte[] indicadoresFilhos) throws IOException {
+        if (nos.length == 0) {
+            return null;
+        }
+
+        Deque<No<Integer, V>> aguardandoDireito = new ArrayDeque<>();
+        No<Integer, V> atual = nos[0];
+        int proximo = 1;
+
+        while (true) {
+            // Na pré-ordem, o nó atual é sempre o último lido.
+            int filhos = indicadoresFilhos[proximo - 1];
+
+            if ((filhos & FILHO_DIREITO) != 0) {
+                aguardandoDireito.push(atual);
+            }
+            if ((filhos & FILHO_ESQUERDO) != 0) {
+                if (proximo >= nos.length) {
+                    throw new IOException("Estrutura de árvore inválida no snapshot.");
+                }
+                atual.setEsquerda(nos[proximo]);
+                atual = nos[proximo++];
+            } else if (!aguardandoDireito.isEmpty()) {
+                if (proximo >= nos.length) {
+                    throw new IOException("Estrutura de árvore inválida no snapshot.");
+                }
+                aguardandoDireito.pop().setDireita(nos[proximo]);
+                atual = nos[proximo++];
+            } else {
+                break;
+            }
+        }
+        if (proximo != nos.length) {
+            throw new IOException("Estrutura de árvore inválida no snapshot.");
+        }
+
+        for (int i = nos.length - 1; i >= 0; i--) {
+            nos[i].setAltura();
+            nos[i].setTamanhoSubarvore();
+        }
+        return nos[0];
+    }
+
+    /**
+     * Lê, a partir da posição atual do buffer, um produto gravado por {@link #gravarProduto}.
+     */
+    static Produto lerProduto(ByteBuffer dados) {
+        int id = dados.getInt();
+        byte tipo = dados.get();
+        String descricao = lerTexto(dados);
+        double precoCusto = dados.getDouble();
+        double margemLucro = dados.getDouble();
+
+        if (tipo == 2) {
+            LocalDate validade = LocalDate.ofEpochDay(dados.getLong());
+            return ProdutoPerecivel.restaurar(id, descricao, precoCusto, margemLucro, validade);
+        }
+        return new ProdutoNaoPerecivel(id, descricao, precoCusto, margemLucro);
+    }
+
+    private static String lerTexto(ByteBuffer dados) {
+        int tamanho = dados.getInt();
+        if (tamanho < 0 || tamanho > dados.remaining()) {
+            throw new IllegalArgumentException("Tamanho de texto inválido: " + tamanho);
+        }
+        byte[] bytes = new byte[tamanho];
+        dados.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gravação bufferizada de valores primitivos e textos num {@link FileChannel}.
+     *
+     * Os dados são gravados num arquivo temporário ao lado do destino, que só substitui o destino, por uma movimentação
+     * atômica, em {@link #concluir()}, depois de sincronizado com o disco. Se a gravação for interrompida antes disso,
+     * {@link #close()} descarta o temporário e o arquivo anterior permanece intacto.
+     */
+    static class Escritor implements Closeable {
+
+        private static final int TAMANHO_BUFFER = 1 << 16;
+
+        private final Path destino;
+        private final Path temporario;
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+        private boolean concluido;
+
+        Escritor(String nomeArquivo) throws IOException {
+            destino = Paths.get(nomeArquivo).toAbsolutePath();
+            temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+            canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+
+        private void descarregar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void octeto(byte valor) throws IOException {
+            garantir(1);
+            buffer.put(valor);
+        }
+
+        void inteiro(int valor) throws IOException {
+            garantir(4);
+            buffer.putInt(valor);
+        }
+
+        void longo(long valor) throws IOException {
+            garantir(8);
+            buffer.putLong(valor);
+        }
+
+        void decimal(double valor) throws IOException {
+            garantir(8);
+            buffer.putDouble(valor);
+        }
+
+        void texto(String valor) throws IOException {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            inteiro(bytes.length);
+            if (bytes.length <= buffer.capacity()) {
+                garantir(bytes.length);
+                buffer.put(bytes);
+            } else {
+                descarregar();
+                ByteBuffer grande = ByteBuffer.wrap(bytes);
+                while (grande.hasRemaining()) {
+                    canal.write(grande);
+                }
+            }
+        }
+
+        /**
+         * Descarrega o buffer, sincroniza o arquivo temporário com o disco e o move atomicamente para o destino,
+         * substituindo o arquivo anterior.
+         * @throws IOException em caso de erro de gravação; nesse caso, o destino não é alterado.
+         */
+        void concluir() throws IOException {
+            descarregar();
+            canal.force(true);
+            canal.close();
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            concluido = true;
+        }
+
+        /**
+         * Fecha o arquivo; caso a gravação não tenha sido concluída, descarta o arquivo temporário.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!concluido) {
+                try {
+                    canal.close();
+                } finally {
+                    Files.deleteIfExists(temporario);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator das entradas de uma árvore binária de busca, em ordem crescente de chave.
+ * 
+ * Antes de iniciar a iteração, a divisão entrega a subárvore esquerda da raiz ainda não visitada como prefixo,
+ * e este spliterator passa a cobrir a própria raiz seguida de sua subárvore direita. Assim, cada parte corresponde
+ * a uma subárvore inteira e pode ser percorrida de forma independente.
+ * @param <K> tipo da chave.
+ * @param <V> tipo do item.
+ */
+class SpliteratorArvore<K, V> implements Spliterator<Entrada<K, V>> {
+
+	private No<K, V> avulso;       // nó visitado antes da subárvore, ou null.
+	private No<K, V> subarvore;    // subárvore ainda não iniciada, visitada após o nó avulso.
+	private IteradorEmOrdem<K, V> iterador; // criado ao iniciar a iteração da subárvore.
+	private long estimativa;
+
+	SpliteratorArvore(No<K, V> raizArvore, long tamanho) {
+		this(null, raizArvore, tamanho);
+	}
+
+	private SpliteratorArvore(No<K, V> avulso, No<K, V> subarvore, long estimativa) {
+		this.avulso = avulso;
+		this.subarvore = subarvore;
+		this.estimativa = estimativa;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Entrada<K, V>> acao) {
+		No<K, V> proximo;
+
+		if (avulso != null) {
+			proximo = avulso;
+			avulso = null;
+		} else {
+			if (iterador == null) {
+				iterador = new IteradorEmOrdem<>(subarvore);
+				subarvore = null;
+			}
+			if (!iterador.hasNext()) {
+				return false;
+			}
+			proximo = iterador.next();
+		}
+		acao.accept(new Entrada<>(proximo.getChave(), proximo.getItem()));
+		return true;
+	}
+
+	@Override
+	public Spliterator<Entrada<K, V>> trySplit() {
+		if (iterador != null || subarvore == null) {
+			return null;
+		}
+
+		SpliteratorArvore<K, V> prefixo;
+
+		if (avulso != null) {
+			// O nó avulso precede a subárvore: é entregue sozinho.
+			prefixo = new SpliteratorArvore<>(avulso, null, 1);
+			avulso = null;
+		} else if (subarvore.getEsquerda() == null) {
+			prefixo = new SpliteratorArvore<>(subarvore, null, 1);
+			subarvore = subarvore.getDireita();
+		} else {
+			estimativa = estimativa >>> 1;
+			prefixo = new SpliteratorArvore<>(null, subarvore.getEsquerda(), estimativa);
+			avulso = subarvore;
+			subarvore = subarvore.getDireita();
+			return prefixo;
+		}
+		estimativa = Math.max(0, estimativa - 1);
+		return prefixo;
+	}
+
+	@Override
+	public long estimateSize() {
+		return estimativa;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL;
+	}
+}
@@ -1,52 +1,146 @@
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 public class TabelaHash<K, V> implements IMapeamento<K, V> {
     
+    /** Fator de carga máximo padrão: quantidade de itens por posição da tabela antes do redimensionamento. */
+    private static final double FATOR_CARGA_PADRAO = 0.75;
+    
+    /** Quantidade de posições da tabela antiga migradas para a nova a cada operação, durante um redimensionamento. */
+    private static final int MIGRACOES_POR_OPERACAO = 4;
+    
     private Lista<Entrada<K, V>>[] tabela;
     private int tamanho;
     private int capacidade;
+    private double fatorCargaMaximo;
+    
+    /** Tabela anterior ao redimensionamento em andamento, ou {@code null} se não há redimensionamento em andamento. */
+    private Lista<Entrada<K, V>>[] tabelaAntiga;
+    private int capacidadeAntiga;
+    /** Próxima posição da tabela antiga a ser migrada. */
+    private int proximaMigracao;
+    
     private long comparacoes;
     private long inicio;
     private long termino;
+    /** Comparações da última inserção ou remoção, consultadas por {@link TabelaHashConcorrente}. */
+    private long comparacoesEscrita;
+    /** Métricas cumulativas; {@code null} quando a coleta está desativada ou é feita por quem contém a tabela. */
+    private final MetricasOperacoes metricas;
     
-    @SuppressWarnings("unchecked")
-    public TabelaHash(int capacidade) {
+    /**
+     * Construtor da classe.
+     * Cria uma tabela hash com a capacidade inicial e o fator de carga máximo informados.
+     * Quando a razão entre a quantidade de itens e a capacidade ultrapassa o fator de carga máximo,
+     * a tabela é redimensionada para o próximo primo maior ou igual ao dobro da capacidade atual.
+     * A migração dos itens é feita de forma incremental, algumas posições a cada operação.
+     * @param capacidade capacidade inicial da tabela (mínimo 1).
+     * @param fatorCargaMaximo fator de carga máximo permitido (maior que 0).
+     * @throws IllegalArgumentException em caso de capacidade ou fator de carga inválidos.
+     */
+    public TabelaHash(int capacidade, double fatorCargaMaximo) {
+        this(capacidade, fatorCargaMaximo, MetricasOperacoes.ATIVAS);
+    }
+    
+    /**
+     * Cria uma tabela com o fator de carga padrão, indicando se ela deve acumular suas próprias métricas.
+     * Usado pelos segmentos de {@link TabelaHashConcorrente}, cujas métricas são acumuladas uma única vez,
+     * pela tabela concorrente.
+     */
+    TabelaHash(int capacidade, boolean acumularMetricas) {
+        this(capacidade, FATOR_CARGA_PADRAO, acumularMetricas && MetricasOperacoes.ATIVAS);
+    }
+    
+    private TabelaHash(int capacidade, double fatorCargaMaximo, boolean acumularMetricas) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade da tabela deve ser positiva.");
+        }
+        if (!(fatorCargaMaximo > 0.0)) {
+            throw new IllegalArgumentException("O fator de carga máximo deve ser positivo.");
+        }
         this.capacidade = capacidade;
+        this.fatorCargaMaximo = fatorCargaMaximo;
         this.tamanho = 0;
-        this.tabela = new Lista[capacidade];
-        
-        for (int i = 0; i < capacidade; i++) {
-            tabela[i] = new Lista<>();
-        }
+        this.tabela = criarTabela(capacidade);
+        this.tabelaAntiga = null;
+        this.metricas = acumularMetricas ? new MetricasOperacoes("TabelaHash") : null;
+    }
+    
+    public TabelaHash(int capacidade) {
+        this(capacidade, FATOR_CARGA_PADRAO);
     }
     
     public TabelaHash() {
         this(101); // Capacidade padrão
     }
     
-    private int hash(K chave) {
+    @SuppressWarnings("unchecked")
+    private Lista<Entrada<K, V>>[] criarTabela(int capacidade) {
+        Lista<Entrada<K, V>>[] nova = new Lista[capacidade];
+        
+        for (int i = 0; i < capacidade; i++) {
+            nova[i] = new Lista<>();
+        }
+        return nova;
+    }
+    
+    private int hash(K chave, int capacidade) {
         return Math.abs(chave.hashCode() % capacidade);
     }
     
+    /**
+     * Retorna a lista da tabela em que a chave está (ou deveria estar) armazenada.
+     * Durante um redimensionamento, as posições da tabela antiga ainda não migradas continuam válidas.
+     * @param chave a chave procurada.
+     * @return a lista correspondente à chave.
+     */
+    private Lista<Entrada<K, V>> listaDa(K chave) {
+        if (tabelaAntiga != null) {
+            int indiceAntigo = hash(chave, capacidadeAntiga);
+            if (indiceAntigo >= proximaMigracao) {
+                return tabelaAntiga[indiceAntigo];
+            }
+        }
+        return tabela[hash(chave, capacidade)];
+    }
+    
     @Override
     public int inserir(K chave, V item) {
-        int indice = hash(chave);
-        Lista<Entrada<K, V>> lista = tabela[indice];
-        
-        // Verifica se a chave já existe
-        Celula<Entrada<K, V>> atual = lista.vazia() ? null : obterPrimeiraCelula(lista);
-        while (atual != null) {
-            if (atual.getItem().getChave().equals(chave)) {
-                atual.getItem().setValor(item);
-                return tamanho;
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        
+        try {
+            migrarPosicoes();
+        
+            Lista<Entrada<K, V>> lista = listaDa(chave);
+        
+            // Verifica se a chave já existe
+            Celula<Entrada<K, V>> atual = lista.primeiraCelula();
+            while (atual != null) {
+                comparacoesOperacao++;
+                if (atual.getItem().getChave().equals(chave)) {
+                    atual.getItem().setValor(item);
+                    return tamanho;
+                }
+                atual = atual.getProximo();
             }
-            atual = atual.getProximo();
-        }
         
-        // Insere nova entrada
-        lista.inserir(new Entrada<>(chave, item));
-        tamanho++;
-        return tamanho;
+            // Insere nova entrada
+            lista.inserir(new Entrada<>(chave, item));
+            tamanho++;
+        
+            if (tamanho > fatorCargaMaximo * capacidade) {
+                redimensionar();
+            }
+            return tamanho;
+        } finally {
+            comparacoesEscrita = comparacoesOperacao;
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
     }
     
     @Override
@@ -54,58 +148,131 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
         comparacoes = 0;
         inicio = System.nanoTime();
         
-        int indice = hash(chave);
-        Lista<Entrada<K, V>> lista = tabela[indice];
+        try {
+            Celula<Entrada<K, V>> atual = listaDa(chave).primeiraCelula();
+            while (atual != null) {
+                comparacoes++;
+                if (atual.getItem().getChave().equals(chave)) {
+                    termino = System.nanoTime();
+                    return atual.getItem().getValor();
+                }
+                atual = atual.getProximo();
+            }
         
-        if (lista.vazia()) {
             termino = System.nanoTime();
             return null;
+        } finally {
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
         }
-        
-        Celula<Entrada<K, V>> atual = obterPrimeiraCelula(lista);
-        while (atual != null) {
-            comparacoes++;
-            if (atual.getItem().getChave().equals(chave)) {
-                termino = System.nanoTime();
-                return atual.getItem().getValor();
-            }
-            atual = atual.getProximo();
-        }
-        
-        termino = System.nanoTime();
-        return null;
     }
     
     @Override
     public V remover(K chave) {
-        int indice = hash(chave);
-        Lista<Entrada<K, V>> lista = tabela[indice];
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        
+        try {
+            migrarPosicoes();
+        
+            Lista<Entrada<K, V>> lista = listaDa(chave);
+        
+            Celula<Entrada<K, V>> anterior = null;
+            Celula<Entrada<K, V>> atual = lista.primeiraCelula();
+        
+            while (atual != null) {
+                comparacoesOperacao++;
+                if (atual.getItem().getChave().equals(chave)) {
+                    V valor = atual.getItem().getValor();
+                    lista.removerApos(anterior);
+                    tamanho--;
+                    return valor;
+                }
+                anterior = atual;
+                atual = atual.getProximo();
+            }
         
-        if (lista.vazia()) {
             throw new NoSuchElementException("Chave não encontrada!");
+        } finally {
+            comparacoesEscrita = comparacoesOperacao;
+            if (MetricasOperacoes.ATIVAS && metricas != null)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+    
+    /**
+     * Inicia o redimensionamento da tabela para o próximo primo maior ou igual ao dobro da capacidade atual.
+     * A tabela atual passa a ser a tabela antiga, cujas posições são migradas aos poucos por {@link #migrarPosicoes()}.
+     * Caso ainda exista um redimensionamento em andamento, ele é concluído antes de iniciar o próximo.
+     */
+    private void redimensionar() {
+        while (tabelaAntiga != null) {
+            migrarPosicoes();
         }
         
-        Celula<Entrada<K, V>> anterior = null;
-        Celula<Entrada<K, V>> atual = obterPrimeiraCelula(lista);
+        EventosJfr.Redimensionamento evento = new EventosJfr.Redimensionamento();
+        evento.begin();
         
-        while (atual != null) {
-            if (atual.getItem().getChave().equals(chave)) {
-                V valor = atual.getItem().getValor();
-                
-                if (anterior == null) {
-                    lista.remover();
-                } else {
-                    anterior.setProximo(atual.getProximo());
-                }
-                
-                tamanho--;
-                return valor;
+        tabelaAntiga = tabela;
+        capacidadeAntiga = capacidade;
+        proximaMigracao = 0;
+        
+        capacidade = proximoPrimo(2 * capacidade);
+        tabela = criarTabela(capacidade);
+        
+        if (evento.shouldCommit()) {
+            evento.estrutura = "TabelaHash";
+            evento.capacidadeAnterior = capacidadeAntiga;
+            evento.capacidadeNova = capacidade;
+            evento.tamanho = tamanho;
+            evento.commit();
+        }
+    }
+    
+    /**
+     * Migra algumas posições da tabela antiga para a nova tabela, caso haja um redimensionamento em andamento.
+     * As entradas são reaproveitadas; como as chaves de uma posição são únicas, não há verificação de duplicidade.
+     */
+    private void migrarPosicoes() {
+        if (tabelaAntiga == null) {
+            return;
+        }
+        
+        int limite = Math.min(proximaMigracao + MIGRACOES_POR_OPERACAO, capacidadeAntiga);
+        
+        for (; proximaMigracao < limite; proximaMigracao++) {
+            for (Entrada<K, V> entrada : tabelaAntiga[proximaMigracao]) {
+                tabela[hash(entrada.getChave(), capacidade)].inserir(entrada);
             }
-            anterior = atual;
-            atual = atual.getProximo();
+            tabelaAntiga[proximaMigracao] = null;
         }
         
-        throw new NoSuchElementException("Chave não encontrada!");
+        if (proximaMigracao == capacidadeAntiga) {
+            tabelaAntiga = null;
+            capacidadeAntiga = 0;
+        }
+    }
+    
+    private static int proximoPrimo(int n) {
+        if (n <= 2) {
+            return 2;
+        }
+        if (n % 2 == 0) {
+            n++;
+        }
+        while (!primo(n)) {
+            n += 2;
+        }
+        return n;
+    }
+    
+    private static boolean primo(int n) {
+        for (int divisor = 3; (long) divisor * divisor <= n; divisor += 2) {
+            if (n % divisor == 0) {
+                return false;
+            }
+        }
+        return true;
     }
     
     @Override
@@ -113,21 +280,157 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
         return tamanho;
     }
     
+    /**
+     * Retorna a capacidade atual da tabela (quantidade de posições).
+     * @return a capacidade da tabela.
+     */
+    public int capacidade() {
+        return capacidade;
+    }
+    
+    /**
+     * Retorna o fator de carga atual da tabela: a razão entre a quantidade de itens e sua capacidade.
+     * @return o fator de carga atual.
+     */
+    public double fatorCarga() {
+        return (double) tamanho / capacidade;
+    }
+    
+    /**
+     * Retorna as estatísticas de ocupação da tabela. Durante um redimensionamento, as posições ainda não migradas
+     * da tabela antiga também são contadas, e a capacidade informada é a soma delas com as da tabela nova.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorTabela coletor = new EstatisticasEstrutura.ColetorTabela();
+        return coletor.concluir("TabelaHash", tamanho, coletarCadeias(coletor));
+    }
+    
+    /**
+     * Registra o comprimento de cada lista da tabela no coletor informado.
+     * @return a quantidade de posições percorridas.
+     */
+    int coletarCadeias(EstatisticasEstrutura.ColetorTabela coletor) {
+        int posicoes = capacidade;
+        
+        if (tabelaAntiga != null) {
+            for (int i = proximaMigracao; i < capacidadeAntiga; i++) {
+                coletor.registrarCadeia(tabelaAntiga[i].tamanho());
+            }
+            posicoes += capacidadeAntiga - proximaMigracao;
+        }
+        for (int i = 0; i < capacidade; i++) {
+            coletor.registrarCadeia(tabela[i].tamanho());
+        }
+        return posicoes;
+    }
+    
     @Override
     public String percorrer() {
         StringBuilder sb = new StringBuilder();
         
-        for (int i = 0; i < capacidade; i++) {
-            if (!tabela[i].vazia()) {
-                Celula<Entrada<K, V>> atual = obterPrimeiraCelula(tabela[i]);
-                while (atual != null) {
-                    sb.append(atual.getItem().toString()).append("\n");
-                    atual = atual.getProximo();
+        if (tabelaAntiga != null) {
+            percorrer(tabelaAntiga, proximaMigracao, capacidadeAntiga, sb);
+        }
+        percorrer(tabela, 0, capacidade, sb);
+        
+        return sb.toString();
+    }
+    
+    private void percorrer(Lista<Entrada<K, V>>[] posicoes, int de, int ate, StringBuilder sb) {
+        for (int i = de; i < ate; i++) {
+            for (Entrada<K, V> entrada : posicoes[i]) {
+                sb.append(entrada.toString()).append("\n");
+            }
+        }
+    }
+    
+    /**
+     * Retorna um iterador das entradas da tabela, na ordem das posições.
+     * A tabela não deve ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+    
+    /**
+     * Retorna um spliterator das entradas da tabela que se divide por intervalos de posições.
+     * Durante um redimensionamento, as posições ainda não migradas da tabela antiga precedem as da tabela nova.
+     */
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        int quantidadeAntigas = (tabelaAntiga != null) ? capacidadeAntiga - proximaMigracao : 0;
+        return new SpliteratorTabela(tabelaAntiga, proximaMigracao, quantidadeAntigas, tabela, 0, quantidadeAntigas + capacidade, tamanho);
+    }
+    
+    /**
+     * Spliterator sobre um intervalo de posições virtuais: as primeiras correspondem às posições não migradas
+     * da tabela antiga e as seguintes, às posições da tabela nova.
+     */
+    private class SpliteratorTabela implements Spliterator<Entrada<K, V>> {
+        
+        private final Lista<Entrada<K, V>>[] antiga;
+        private final int inicioAntiga;
+        private final int quantidadeAntigas;
+        private final Lista<Entrada<K, V>>[] nova;
+        private int proxima;
+        private final int fim;
+        private long estimativa;
+        private Celula<Entrada<K, V>> celula;
+        
+        SpliteratorTabela(Lista<Entrada<K, V>>[] antiga, int inicioAntiga, int quantidadeAntigas,
+                          Lista<Entrada<K, V>>[] nova, int de, int ate, long estimativa) {
+            this.antiga = antiga;
+            this.inicioAntiga = inicioAntiga;
+            this.quantidadeAntigas = quantidadeAntigas;
+            this.nova = nova;
+            this.proxima = de;
+            this.fim = ate;
+            this.estimativa = estimativa;
+        }
+        
+        private Lista<Entrada<K, V>> posicao(int indice) {
+            return (indice < quantidadeAntigas) ? antiga[inicioAntiga + indice] : nova[indice - quantidadeAntigas];
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super Entrada<K, V>> acao) {
+            while (celula == null) {
+                if (proxima >= fim) {
+                    return false;
                 }
+                celula = posicao(proxima++).primeiraCelula();
             }
+            Entrada<K, V> entrada = celula.getItem();
+            celula = celula.getProximo();
+            acao.accept(new Entrada<>(entrada.getChave(), entrada.getValor()));
+            return true;
         }
         
-        return sb.toString();
+        @Override
+        public Spliterator<Entrada<K, V>> trySplit() {
+            int meio = (proxima + fim) >>> 1;
+            
+            if (celula != null || meio <= proxima) {
+                return null;
+            }
+            
+            estimativa = estimativa >>> 1;
+            SpliteratorTabela prefixo = new SpliteratorTabela(antiga, inicioAntiga, quantidadeAntigas, nova, proxima, meio, estimativa);
+            proxima = meio;
+            return prefixo;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return estimativa;
+        }
+        
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
     }
     
     @Override
@@ -140,22 +443,20 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
         return (termino - inicio) / 1_000_000.0;
     }
     
+    /**
+     * Retorna a quantidade de comparações da última inserção ou remoção (concluída ou não).
+     */
+    long getComparacoesUltimaEscrita() {
+        return comparacoesEscrita;
+    }
+    
     @Override
-    public String toString() {
-        return percorrer();
+    public MetricasOperacoes getMetricas() {
+        return metricas;
     }
     
-    // Método auxiliar para acessar a primeira célula de uma lista
-    private Celula<Entrada<K, V>> obterPrimeiraCelula(Lista<Entrada<K, V>> lista) {
-        // Como Lista tem uma célula cabeça, pegamos a próxima
-        try {
-            // Usa reflexão para acessar o campo 'primeiro'
-            java.lang.reflect.Field campo = Lista.class.getDeclaredField("primeiro");
-            campo.setAccessible(true);
-            Celula<Entrada<K, V>> primeiro = (Celula<Entrada<K, V>>) campo.get(lista);
-            return primeiro.getProximo();
-        } catch (Exception e) {
-            return null;
-        }
+    @Override
+    public String toString() {
+        return percorrer();
     }
 }
@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tabela hash segura para acesso concorrente, com travas segmentadas.
+ * 
+ * As chaves são distribuídas entre segmentos independentes, cada um deles uma {@link TabelaHash}
+ * protegida por sua própria trava. Operações sobre chaves de segmentos diferentes não disputam a mesma trava,
+ * e cada segmento se redimensiona sozinho (de forma incremental) enquanto detém sua trava, sem bloquear os demais.
+ * A medição de comparações e tempo é mantida por thread: cada thread consulta a medição de sua última pesquisa.
+ * @param <K> tipo das chaves.
+ * @param <V> tipo dos valores.
+ */
+public class TabelaHashConcorrente<K, V> implements IMapeamento<K, V> {
+    
+    private static final int SEGMENTOS_PADRAO = 16;
+    
+    private final TabelaHash<K, V>[] segmentos;
+    private final ReentrantLock[] travas;
+    private final int deslocamento;
+    private final AtomicInteger tamanho;
+    private final MedicaoPorThread medicao;
+    /** Métricas cumulativas de todos os segmentos, acumuladas fora das travas; os segmentos não acumulam as suas. */
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("TabelaHashConcorrente") : null;
+    
+    /**
+     * Construtor da classe.
+     * @param capacidade capacidade inicial total, dividida entre os segmentos.
+     * @param quantidadeSegmentos quantidade desejada de segmentos; é arredondada para a próxima potência de 2.
+     * @throws IllegalArgumentException em caso de capacidade ou quantidade de segmentos inválidas.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TabelaHashConcorrente(int capacidade, int quantidadeSegmentos) {
+        if (capacidade < 1 || quantidadeSegmentos < 1 || quantidadeSegmentos > (1 << 16)) {
+            throw new IllegalArgumentException("Capacidade ou quantidade de segmentos inválida.");
+        }
+        int segmentosPotencia = (quantidadeSegmentos == 1) ? 1 : Integer.highestOneBit(quantidadeSegmentos - 1) << 1;
+        int capacidadeSegmento = Math.max(1, capacidade / segmentosPotencia);
+        
+        segmentos = new TabelaHash[segmentosPotencia];
+        travas = new ReentrantLock[segmentosPotencia];
+        for (int i = 0; i < segmentosPotencia; i++) {
+            segmentos[i] = new TabelaHash<>(capacidadeSegmento, false);
+            travas[i] = new ReentrantLock();
+        }
+        deslocamento = 32 - Integer.numberOfTrailingZeros(segmentosPotencia);
+        tamanho = new AtomicInteger();
+        medicao = new MedicaoPorThread();
+    }
+    
+    public TabelaHashConcorrente(int capacidade) {
+        this(capacidade, SEGMENTOS_PADRAO);
+    }
+    
+    public TabelaHashConcorrente() {
+        this(101 * SEGMENTOS_PADRAO);
+    }
+    
+    /**
+     * Escolhe o segmento pelos bits mais altos do hash espalhado, pois cada segmento usa o resto da divisão
+     * (bits mais baixos) para escolher sua posição.
+     */
+    private int segmento(K chave) {
+        if (segmentos.length == 1) {
+            return 0;
+        }
+        return (chave.hashCode() * 0x9E3779B9) >>> deslocamento;
+    }
+    
+    @Override
+    public int inserir(K chave, V item) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        int indice = segmento(chave);
+        ReentrantLock trava = travas[indice];
+        long comparacoesOperacao = 0;
+        
+        trava.lock();
+        try {
+            TabelaHash<K, V> tabela = segmentos[indice];
+            int antes = tabela.tamanho();
+            int depois = tabela.inserir(chave, item);
+            comparacoesOperacao = tabela.getComparacoesUltimaEscrita();
+            if (depois > antes) {
+                return tamanho.incrementAndGet();
+            }
+            return tamanho.get();
+        } finally {
+            trava.unlock();
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+    
+    @Override
+    public V pesquisar(K chave) {
+        long inicio = System.nanoTime();
+        int indice = segmento(chave);
+        ReentrantLock trava = travas[indice];
+        V valor;
+        long comparacoes;
+        
+        trava.lock();
+        try {
+            valor = segmentos[indice].pesquisar(chave);
+            comparacoes = segmentos[indice].getComparacoes();
+        } finally {
+            trava.unlock();
+        }
+        long termino = System.nanoTime();
+        medicao.registrar(comparacoes, inicio, termino);
+        if (MetricasOperacoes.ATIVAS)
+            metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, termino, chave);
+        return valor;
+    }
+    
+    @Override
+    public V remover(K chave) {
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        int indice = segmento(chave);
+        ReentrantLock trava = travas[indice];
+        long comparacoesOperacao = 0;
+        
+        trava.lock();
+        try {
+            try {
+                V valor = segmentos[indice].remover(chave);
+                tamanho.decrementAndGet();
+                return valor;
+            } finally {
+                comparacoesOperacao = segmentos[indice].getComparacoesUltimaEscrita();
+            }
+        } finally {
+            trava.unlock();
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+    
+    @Override
+    public int tamanho() {
+        return tamanho.get();
+    }
+    
+    @Override
+    public String percorrer() {
+        StringBuilder sb = new StringBuilder();
+        
+        for (int i = 0; i < segmentos.length; i++) {
+            travas[i].lock();
+            try {
+                sb.append(segmentos[i].percorrer());
+            } finally {
+                travas[i].unlock();
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Retorna as estatísticas de ocupação somadas de todos os segmentos. Cada segmento é percorrido enquanto sua trava
+     * é mantida; alterações concorrentes em segmentos ainda não percorridos podem ou não estar refletidas.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorTabela coletor = new EstatisticasEstrutura.ColetorTabela();
+        int posicoes = 0;
+        int itens = 0;
+        
+        for (int i = 0; i < segmentos.length; i++) {
+            travas[i].lock();
+            try {
+                posicoes += segmentos[i].coletarCadeias(coletor);
+                itens += segmentos[i].tamanho();
+            } finally {
+                travas[i].unlock();
+            }
+        }
+        return coletor.concluir("TabelaHashConcorrente (" + segmentos.length + " segmentos)", itens, posicoes);
+    }
+    
+    /**
+     * Retorna uma cópia das entradas da tabela. Cada segmento é copiado enquanto sua trava é mantida;
+     * alterações concorrentes em segmentos ainda não copiados podem ou não estar refletidas.
+     */
+    private List<Entrada<K, V>> copiarEntradas() {
+        List<Entrada<K, V>> entradas = new ArrayList<>(tamanho.get());
+        
+        for (int i = 0; i < segmentos.length; i++) {
+            travas[i].lock();
+            try {
+                for (Entrada<K, V> entrada : segmentos[i]) {
+                    entradas.add(entrada);
+                }
+            } finally {
+                travas[i].unlock();
+            }
+        }
+        return entradas;
+    }
+    
+    /**
+     * Retorna um iterador sobre uma cópia das entradas; a tabela pode ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return copiarEntradas().iterator();
+    }
+    
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+        return copiarEntradas().spliterator();
+    }
+    
+    /**
+     * Retorna a quantidade de comparações da última pesquisa realizada pela thread atual.
+     */
+    @Override
+    public long getComparacoes() {
+        return medicao.getComparacoes();
+    }
+    
+    /**
+     * Retorna o tempo, em milissegundos, da última pesquisa realizada pela thread atual.
+     */
+    @Override
+    public double getTempo() {
+        return medicao.getTempo();
+    }
+    
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+    
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}
@@ -0,0 +1,360 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Tabela hash de endereçamento aberto especializada em chaves inteiras primitivas.
+ * 
+ * As chaves, os valores e a ocupação de cada posição ficam armazenados em vetores paralelos,
+ * sem objetos intermediários por item e sem conversão de chaves para {@code Integer} nas operações
+ * que recebem {@code int}. Colisões são resolvidas por sondagem linear; a remoção desloca os itens
+ * seguintes da sequência de sondagem para trás, dispensando marcadores de remoção.
+ * A capacidade é sempre uma potência de 2 e é dobrada quando o fator de carga máximo é ultrapassado.
+ * @param <V> tipo dos valores armazenados.
+ */
+public class TabelaHashInt<V> implements IMapeamento<Integer, V> {
+    
+    private static final double FATOR_CARGA_PADRAO = 0.5;
+    private static final int CAPACIDADE_PADRAO = 128;
+    
+    private int[] chaves;
+    private Object[] valores;
+    private boolean[] ocupadas;
+    private int mascara;
+    private int tamanho;
+    private int limiteRedimensionamento;
+    private double fatorCargaMaximo;
+    
+    private long comparacoes;
+    private long inicio;
+    private long termino;
+    private final MetricasOperacoes metricas = MetricasOperacoes.ATIVAS ? new MetricasOperacoes("TabelaHashInt") : null;
+    
+    /**
+     * Construtor da classe.
+     * @param capacidade capacidade inicial desejada; é arredondada para a próxima potência de 2.
+     * @param fatorCargaMaximo fator de carga máximo permitido (maior que 0 e menor que 1).
+     * @throws IllegalArgumentException em caso de capacidade ou fator de carga inválidos.
+     */
+    public TabelaHashInt(int capacidade, double fatorCargaMaximo) {
+        if (capacidade < 1 || capacidade > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidade inválida para a tabela.");
+        }
+        if (!(fatorCargaMaximo > 0.0 && fatorCargaMaximo < 1.0)) {
+            throw new IllegalArgumentException("O fator de carga máximo deve estar entre 0 e 1.");
+        }
+        this.fatorCargaMaximo = fatorCargaMaximo;
+        alocar(Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1);
+    }
+    
+    public TabelaHashInt(int capacidade) {
+        this(capacidade, FATOR_CARGA_PADRAO);
+    }
+    
+    public TabelaHashInt() {
+        this(CAPACIDADE_PADRAO);
+    }
+    
+    private void alocar(int capacidade) {
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+        ocupadas = new boolean[capacidade];
+        mascara = capacidade - 1;
+        limiteRedimensionamento = (int) (capacidade * fatorCargaMaximo);
+        tamanho = 0;
+    }
+    
+    /**
+     * Espalha os bits da chave antes de aplicar a máscara, pois identificadores sequenciais
+     * ocupariam posições consecutivas e formariam longas sequências de sondagem.
+     */
+    private int posicaoInicial(int chave) {
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+    
+    /**
+     * Insere o item associado à chave informada. Caso a chave já exista, seu valor é substituído.
+     * @param chave a chave do item.
+     * @param item o item a ser armazenado.
+     * @return o tamanho atualizado da tabela.
+     */
+    public int inserir(int chave, V item) {
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        
+        try {
+            int posicao = posicaoInicial(chave);
+        
+            while (ocupadas[posicao]) {
+                comparacoesOperacao++;
+                if (chaves[posicao] == chave) {
+                    valores[posicao] = item;
+                    return tamanho;
+                }
+                posicao = (posicao + 1) & mascara;
+            }
+        
+            chaves[posicao] = chave;
+            valores[posicao] = item;
+            ocupadas[posicao] = true;
+            tamanho++;
+        
+            if (tamanho > limiteRedimensionamento) {
+                redimensionar();
+            }
+            return tamanho;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.INSERIR, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+    
+    @Override
+    public int inserir(Integer chave, V item) {
+        return inserir(chave.intValue(), item);
+    }
+    
+    /**
+     * Pesquisa o item associado à chave informada.
+     * @param chave a chave procurada.
+     * @return o item associado à chave, ou {@code null} caso a chave não esteja na tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisar(int chave) {
+        comparacoes = 0;
+        inicio = System.nanoTime();
+        
+        try {
+            int posicao = posicaoInicial(chave);
+        
+            while (ocupadas[posicao]) {
+                comparacoes++;
+                if (chaves[posicao] == chave) {
+                    termino = System.nanoTime();
+                    return (V) valores[posicao];
+                }
+                posicao = (posicao + 1) & mascara;
+            }
+        
+            termino = System.nanoTime();
+            return null;
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.PESQUISAR, comparacoes, inicio, System.nanoTime(), chave);
+        }
+    }
+    
+    @Override
+    public V pesquisar(Integer chave) {
+        return pesquisar(chave.intValue());
+    }
+    
+    /**
+     * Remove o item associado à chave informada.
+     * @param chave a chave do item a ser removido.
+     * @return o item removido.
+     * @throws NoSuchElementException caso a chave não esteja na tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int chave) {
+        long comparacoesOperacao = 0;
+        long inicioOperacao = MetricasOperacoes.ATIVAS ? System.nanoTime() : 0;
+        
+        try {
+            int posicao = posicaoInicial(chave);
+        
+            while (ocupadas[posicao]) {
+                comparacoesOperacao++;
+                if (chaves[posicao] == chave) {
+                    V valor = (V) valores[posicao];
+                    deslocarParaTras(posicao);
+                    tamanho--;
+                    return valor;
+                }
+                posicao = (posicao + 1) & mascara;
+            }
+        
+            throw new NoSuchElementException("Chave não encontrada!");
+        } finally {
+            if (MetricasOperacoes.ATIVAS)
+                metricas.registrar(MetricasOperacoes.Operacao.REMOVER, comparacoesOperacao, inicioOperacao, System.nanoTime(), chave);
+        }
+    }
+    
+    @Override
+    public V remover(Integer chave) {
+        return remover(chave.intValue());
+    }
+    
+    /**
+     * Libera a posição informada, trazendo para ela os itens seguintes da sequência de sondagem
+     * que ficariam inacessíveis com a abertura do espaço vazio.
+     * @param livre a posição cujo item foi removido.
+     */
+    private void deslocarParaTras(int livre) {
+        int atual = (livre + 1) & mascara;
+        
+        while (ocupadas[atual]) {
+            int ideal = posicaoInicial(chaves[atual]);
+            // O item pode ocupar a posição livre se ela estiver entre sua posição ideal e sua posição atual (circularmente).
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                chaves[livre] = chaves[atual];
+                valores[livre] = valores[atual];
+                livre = atual;
+            }
+            atual = (atual + 1) & mascara;
+        }
+        
+        ocupadas[livre] = false;
+        valores[livre] = null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void redimensionar() {
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        boolean[] ocupadasAntigas = ocupadas;
+        
+        alocar(chavesAntigas.length << 1);
+        
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (ocupadasAntigas[i]) {
+                int posicao = posicaoInicial(chavesAntigas[i]);
+                while (ocupadas[posicao]) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                chaves[posicao] = chavesAntigas[i];
+                valores[posicao] = valoresAntigos[i];
+                ocupadas[posicao] = true;
+                tamanho++;
+            }
+        }
+    }
+    
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+    
+    /**
+     * Retorna as estatísticas de ocupação da tabela. Com endereçamento aberto, cada sequência contínua de posições
+     * ocupadas conta como uma cadeia: uma busca sem sucesso que comece nela percorre-a até a próxima posição livre.
+     */
+    @Override
+    public EstatisticasEstrutura estatisticas() {
+        EstatisticasEstrutura.ColetorTabela coletor = new EstatisticasEstrutura.ColetorTabela();
+        coletor.registrarSequencias(i -> ocupadas[i], chaves.length);
+        return coletor.concluir("TabelaHashInt", tamanho, chaves.length);
+    }
+    
+    /**
+     * Retorna a capacidade atual da tabela (quantidade de posições).
+     * @return a capacidade da tabela.
+     */
+    public int capacidade() {
+        return chaves.length;
+    }
+    
+    @Override
+    public String percorrer() {
+        StringBuilder sb = new StringBuilder();
+        
+        for (int i = 0; i < chaves.length; i++) {
+            if (ocupadas[i]) {
+                sb.append(chaves[i]).append(" -> ").append(valores[i]).append("\n");
+            }
+        }
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Retorna um iterador das entradas da tabela, na ordem das posições.
+     * A tabela não deve ser modificada durante a iteração.
+     */
+    @Override
+    public Iterator<Entrada<Integer, V>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+    
+    /**
+     * Retorna um spliterator das entradas da tabela que se divide por intervalos de posições.
+     */
+    @Override
+    public Spliterator<Entrada<Integer, V>> spliterator() {
+        return new SpliteratorPosicoes(0, chaves.length, tamanho);
+    }
+    
+    private class SpliteratorPosicoes implements Spliterator<Entrada<Integer, V>> {
+        
+        private int proxima;
+        private final int fim;
+        private long estimativa;
+        
+        SpliteratorPosicoes(int de, int ate, long estimativa) {
+            this.proxima = de;
+            this.fim = ate;
+            this.estimativa = estimativa;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Entrada<Integer, V>> acao) {
+            while (proxima < fim) {
+                int posicao = proxima++;
+                if (ocupadas[posicao]) {
+                    acao.accept(new Entrada<>(chaves[posicao], (V) valores[posicao]));
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public Spliterator<Entrada<Integer, V>> trySplit() {
+            int meio = (proxima + fim) >>> 1;
+            
+            if (meio <= proxima) {
+                return null;
+            }
+            
+            estimativa = estimativa >>> 1;
+            SpliteratorPosicoes prefixo = new SpliteratorPosicoes(proxima, meio, estimativa);
+            proxima = meio;
+            return prefixo;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return estimativa;
+        }
+        
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+    
+    @Override
+    public long getComparacoes() {
+        return comparacoes;
+    }
+    
+    @Override
+    public double getTempo() {
+        return (termino - inicio) / 1_000_000.0;
+    }
+    
+    @Override
+    public MetricasOperacoes getMetricas() {
+        return metricas;
+    }
+    
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}